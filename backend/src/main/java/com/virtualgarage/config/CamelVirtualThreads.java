@@ -0,0 +1,69 @@
+package com.virtualgarage.config;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.spring.boot.CamelContextConfiguration;
+import org.apache.camel.support.DefaultThreadPoolFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts Camel's consumer and route thread pools on the threads from {@link TaskExecutors}.
+ * The bundled Camel 4.2 has no virtual thread switch of its own, so with the
+ * {@code virtual-threads} profile its thread pool factory is replaced by one that keeps
+ * Camel's pool sizes and queues but creates virtual threads.
+ */
+@Component
+public class CamelVirtualThreads implements CamelContextConfiguration {
+
+    private final TaskExecutors taskExecutors;
+
+    public CamelVirtualThreads(TaskExecutors taskExecutors) {
+        this.taskExecutors = taskExecutors;
+    }
+
+    @Override
+    public void beforeApplicationStart(CamelContext camelContext) {
+        if (taskExecutors.isVirtualThreads()) {
+            camelContext.getExecutorServiceManager().setThreadPoolFactory(
+                    new VirtualThreadPoolFactory(taskExecutors.threadFactory("camel-")));
+        }
+    }
+
+    @Override
+    public void afterApplicationStart(CamelContext camelContext) {
+    }
+
+    private static final class VirtualThreadPoolFactory extends DefaultThreadPoolFactory {
+
+        private final ThreadFactory virtualThreads;
+
+        VirtualThreadPoolFactory(ThreadFactory virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        @Override
+        public ExecutorService newCachedThreadPool(ThreadFactory threadFactory) {
+            return super.newCachedThreadPool(virtualThreads);
+        }
+
+        @Override
+        public ExecutorService newThreadPool(int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit timeUnit,
+                                             int maxQueueSize, boolean allowCoreThreadTimeOut,
+                                             RejectedExecutionHandler rejectedExecutionHandler,
+                                             ThreadFactory threadFactory) {
+            return super.newThreadPool(corePoolSize, maxPoolSize, keepAliveTime, timeUnit, maxQueueSize,
+                    allowCoreThreadTimeOut, rejectedExecutionHandler, virtualThreads);
+        }
+
+        @Override
+        public ScheduledExecutorService newScheduledThreadPool(ThreadPoolProfile profile, ThreadFactory threadFactory) {
+            return super.newScheduledThreadPool(profile, virtualThreads);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.virtualgarage.config;
+
+import com.virtualgarage.service.VehicleImageBackfillService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the vehicle image backfill job.
+ * GET reports progress, POST starts or resumes a run, DELETE stops it after the current chunk.
+ */
+@Component
+@Endpoint(id = "imagebackfill")
+public class ImageBackfillEndpoint {
+
+    private final VehicleImageBackfillService backfillService;
+
+    public ImageBackfillEndpoint(VehicleImageBackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return backfillService.getProgress();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        backfillService.start();
+        return backfillService.getProgress();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        backfillService.stop();
+        return backfillService.getProgress();
+    }
+}
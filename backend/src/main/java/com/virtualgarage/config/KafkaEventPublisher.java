@@ -1,5 +1,7 @@
 package com.virtualgarage.config;
 
+import com.virtualgarage.event.VehicleChangeEvent;
+import com.virtualgarage.event.VehicleViewedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,11 +9,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Publishes application events to Kafka. Vehicle writes and views raised by {@code VehicleService}
+ * are forwarded once their transaction commits; sends are asynchronous and batched by the producer.
+ */
 @Component
 public class KafkaEventPublisher {
 
@@ -28,11 +36,27 @@ public class KafkaEventPublisher {
     @Value("${virtual-garage.kafka.topics.user-activity:user-activity}")
     private String userActivityTopic;
 
+    @Value("${virtual-garage.kafka.publishing.enabled:true}")
+    private boolean publishingEnabled;
+
     @Autowired
     public KafkaEventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
 
+    /**
+     * Only committed writes are published; a rolled back write never reaches consumers.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVehicleChange(VehicleChangeEvent event) {
+        publishVehicleEvent(event.getEventType(), event.getVehicleId(), event.getData());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVehicleViewed(VehicleViewedEvent event) {
+        publishVehicleEvent(VEHICLE_VIEWED, event.getVehicleId(), event.getData());
+    }
+
     public void publishVehicleEvent(String eventType, Long vehicleId, Object data) {
         Map<String, Object> event = Map.of(
             "eventType", eventType,
@@ -74,6 +98,9 @@ public class KafkaEventPublisher {
     }
 
     private void publishEvent(String topic, String key, Object event) {
+        if (!publishingEnabled) {
+            return;
+        }
         try {
             CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
             
@@ -0,0 +1,61 @@
+package com.virtualgarage.config;
+
+import com.virtualgarage.llm.LlmClient;
+import com.virtualgarage.llm.LlmHealth;
+import com.virtualgarage.llm.LlmHealthMonitor;
+import com.virtualgarage.llm.RoutingLlmClient;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the cached LLM provider status as the "llm" health component.
+ * An unavailable provider is reported as DEGRADED, which is left out of the overall
+ * status, so an LLM outage does not fail the container health check.
+ */
+@Component
+public class LlmHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED", "Parts search AI suggestions are unavailable");
+
+    private final LlmHealthMonitor healthMonitor;
+
+    public LlmHealthIndicator(LlmHealthMonitor healthMonitor) {
+        this.healthMonitor = healthMonitor;
+    }
+
+    @Override
+    public Health health() {
+        LlmClient active = healthMonitor.getActiveClient();
+        Health.Builder builder = active.isAvailable() ? Health.up() : Health.status(DEGRADED);
+        builder.withDetail("provider", active.getProviderName());
+
+        Map<String, Object> providers = new LinkedHashMap<>();
+        healthMonitor.getStatuses().forEach((provider, health) -> providers.put(provider, describe(health)));
+        builder.withDetail("providers", providers);
+
+        if (active instanceof RoutingLlmClient routingClient) {
+            builder.withDetail("circuits", routingClient.getCircuitStates());
+        }
+        return builder.build();
+    }
+
+    static Map<String, Object> describe(LlmHealth health) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("available", health.available());
+        if (health.latencyMs() != null) {
+            details.put("latency_ms", health.latencyMs());
+        }
+        if (health.error() != null) {
+            details.put("error", health.error());
+        }
+        if (health.checkedAt() != null) {
+            details.put("checked_at", health.checkedAt().toString());
+        }
+        return details;
+    }
+}
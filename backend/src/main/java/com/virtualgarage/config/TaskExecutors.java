@@ -0,0 +1,61 @@
+package com.virtualgarage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the executors used by services for their own background work.
+ * With {@code spring.threads.virtual.enabled} (the {@code virtual-threads} profile, Java 21)
+ * threads are virtual; otherwise they are named platform threads.
+ */
+@Component
+public class TaskExecutors {
+
+    private final boolean virtualThreads;
+
+    public TaskExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Thread factory for bounded pools; the pool size still caps concurrency either way.
+     */
+    public ThreadFactory threadFactory(String namePrefix) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(namePrefix);
+    }
+
+    /**
+     * Executor for blocking I/O fan-out. On virtual threads every task gets its own thread;
+     * on platform threads a fixed pool of {@code platformThreads} is used.
+     */
+    public ExecutorService newIoExecutor(String namePrefix, int platformThreads) {
+        if (virtualThreads) {
+            return newThreadPerTaskExecutor(threadFactory(namePrefix));
+        }
+        return Executors.newFixedThreadPool(platformThreads, threadFactory(namePrefix));
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        // Java 21 API; looked up reflectively so the default build still targets Java 17
+        try {
+            Method factoryMethod = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) factoryMethod.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21", e);
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.virtualgarage.controller;
 
+import com.virtualgarage.dto.BatchPartsSearchRequest;
+import com.virtualgarage.dto.BatchPartsSearchResponse;
 import com.virtualgarage.dto.PartsSearchRequest;
 import com.virtualgarage.dto.PartsSearchResponse;
+import com.virtualgarage.llm.LlmClient;
 import com.virtualgarage.llm.LlmException;
+import com.virtualgarage.llm.LlmHealthMonitor;
+import com.virtualgarage.llm.LlmOverloadedException;
+import com.virtualgarage.service.PartsSearchHistoryService;
 import com.virtualgarage.service.PartsSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST controller for AI-powered parts search.
@@ -26,33 +42,82 @@ public class PartsSearchController {
     private static final Logger logger = LoggerFactory.getLogger(PartsSearchController.class);
     
     private final PartsSearchService partsSearchService;
+    private final PartsSearchHistoryService searchHistoryService;
+    private final LlmHealthMonitor llmHealthMonitor;
     
-    public PartsSearchController(PartsSearchService partsSearchService) {
+    public PartsSearchController(PartsSearchService partsSearchService,
+                                 PartsSearchHistoryService searchHistoryService,
+                                 LlmHealthMonitor llmHealthMonitor) {
         this.partsSearchService = partsSearchService;
+        this.searchHistoryService = searchHistoryService;
+        this.llmHealthMonitor = llmHealthMonitor;
     }
     
     @PostMapping("/search")
     @Operation(summary = "Search for parts", 
                description = "Use AI to find compatible parts for a specific vehicle")
-    public ResponseEntity<PartsSearchResponse> searchParts(@Valid @RequestBody PartsSearchRequest request) {
+    public CompletableFuture<ResponseEntity<PartsSearchResponse>> searchParts(@Valid @RequestBody PartsSearchRequest request) {
         logger.info("Parts search request received for vehicle: {}", request.getVehicleId());
         
-        try {
-            PartsSearchResponse response = partsSearchService.searchParts(request);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid request: {}", e.getMessage());
-            throw e;
-        } catch (LlmException e) {
-            logger.error("LLM service error: {}", e.getMessage());
-            throw e;
-        }
+        // The servlet thread is released while the LLM generates
+        return partsSearchService.searchPartsAsync(request)
+                .thenApply(ResponseEntity::ok);
+    }
+    
+    @PostMapping("/search/batch")
+    @Operation(summary = "Search for parts across several vehicles",
+               description = "Run one query for many vehicles; vehicles are answered together in as few AI calls as possible")
+    public CompletableFuture<ResponseEntity<BatchPartsSearchResponse>> searchPartsBatch(
+            @Valid @RequestBody BatchPartsSearchRequest request) {
+        logger.info("Batch parts search request received for {} vehicles", request.getVehicleIds().size());
+        
+        return partsSearchService.searchPartsBatchAsync(request)
+                .thenApply(ResponseEntity::ok);
+    }
+    
+    @PostMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Search for parts with streamed results",
+               description = "Server-Sent Events: a 'suggestion' event per AI suggestion as soon as it is generated, " +
+                             "then a 'complete' event with the full response, or an 'error' event")
+    public SseEmitter searchPartsStream(@Valid @RequestBody PartsSearchRequest request) {
+        logger.info("Streaming parts search request received for vehicle: {}", request.getVehicleId());
+        
+        SseEmitter emitter = new SseEmitter();
+        partsSearchService.searchPartsStreaming(request, suggestion -> {
+            try {
+                emitter.send(SseEmitter.event().name("suggestion").data(suggestion));
+            } catch (IOException e) {
+                // Client went away; abort the generation
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((response, error) -> {
+            try {
+                if (error == null) {
+                    emitter.send(SseEmitter.event().name("complete").data(response));
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    logger.error("Streaming parts search failed: {}", cause.getMessage());
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("error", cause instanceof LlmException ? "LLM Service Error" : "Search Failed");
+                    body.put("message", String.valueOf(cause.getMessage()));
+                    if (cause instanceof LlmOverloadedException overloaded) {
+                        body.put("retry_after", overloaded.getRetryAfterSeconds());
+                    }
+                    emitter.send(SseEmitter.event().name("error").data(body));
+                }
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
     }
     
     @GetMapping("/search/{vehicleId}")
     @Operation(summary = "Quick search for parts",
                description = "Simple GET endpoint for basic parts search")
-    public ResponseEntity<PartsSearchResponse> quickSearch(
+    public CompletableFuture<ResponseEntity<PartsSearchResponse>> quickSearch(
             @PathVariable Long vehicleId,
             @RequestParam String query,
             @RequestParam(defaultValue = "10") int maxResults) {
@@ -65,27 +130,53 @@ public class PartsSearchController {
         return searchParts(request);
     }
     
+    @GetMapping("/popular")
+    @Operation(summary = "Popular parts searches",
+               description = "Most searched queries for a make and model, with the suggestions last returned for each")
+    public ResponseEntity<List<Map<String, Object>>> getPopularQueries(
+            @RequestParam String make,
+            @RequestParam String model,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchHistoryService.getPopularQueries(make, model, limit));
+    }
+    
     @GetMapping("/providers")
     @Operation(summary = "Get available LLM providers",
-               description = "List configured LLM providers for parts search")
+               description = "List LLM providers with the status from their last background health check")
     public ResponseEntity<Map<String, Object>> getProviders() {
-        // This could be expanded to show which providers are configured
+        LlmClient active = llmHealthMonitor.getActiveClient();
         return ResponseEntity.ok(Map.of(
-            "providers", new String[]{"claude", "grok"},
+            "provider", active.getProviderName(),
+            "available", active.isAvailable(),
+            "providers", llmHealthMonitor.getStatuses(),
             "note", "Provider is configured via application properties"
         ));
     }
     
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        logger.warn("Invalid request: {}", e.getMessage());
         return ResponseEntity.badRequest().body(Map.of(
             "error", "Bad Request",
             "message", e.getMessage()
         ));
     }
     
+    @ExceptionHandler(LlmOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleLlmOverloaded(LlmOverloadedException e) {
+        logger.warn("LLM provider overloaded: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(Map.of(
+                "error", "Too Many Requests",
+                "message", e.getMessage(),
+                "provider", e.getProvider()
+            ));
+    }
+    
     @ExceptionHandler(LlmException.class)
     public ResponseEntity<Map<String, String>> handleLlmException(LlmException e) {
+        logger.error("LLM service error: {}", e.getMessage());
         return ResponseEntity.internalServerError().body(Map.of(
             "error", "LLM Service Error",
             "message", e.getMessage(),
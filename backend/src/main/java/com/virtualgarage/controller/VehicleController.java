@@ -1,22 +1,32 @@
 package com.virtualgarage.controller;
 
+import com.virtualgarage.dto.BulkImportResult;
+import com.virtualgarage.dto.VehicleCursorPage;
 import com.virtualgarage.dto.VehicleDTO;
+import com.virtualgarage.service.DashboardStatsService;
+import com.virtualgarage.service.VehicleBulkImportService;
+import com.virtualgarage.service.VehicleExportService;
 import com.virtualgarage.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -32,10 +42,23 @@ public class VehicleController {
     private static final Logger logger = LoggerFactory.getLogger(VehicleController.class);
 
     private final VehicleService vehicleService;
+    private final DashboardStatsService dashboardStatsService;
+    private final VehicleExportService vehicleExportService;
+    private final VehicleBulkImportService vehicleBulkImportService;
+
+    // Exports run for the length of the download; other async requests keep the default timeout
+    @Value("${virtual-garage.export.request-timeout:600000}")
+    private long exportTimeoutMs;
 
     @Autowired
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService,
+                             DashboardStatsService dashboardStatsService,
+                             VehicleExportService vehicleExportService,
+                             VehicleBulkImportService vehicleBulkImportService) {
         this.vehicleService = vehicleService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.vehicleExportService = vehicleExportService;
+        this.vehicleBulkImportService = vehicleBulkImportService;
     }
 
     @GetMapping
@@ -56,6 +79,22 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get all vehicles by cursor",
+               description = "Retrieve active vehicles newest first using keyset pagination. " +
+                             "Pass an empty cursor for the first slice, then the returned next_cursor.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved vehicles")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+    public ResponseEntity<VehicleCursorPage> getAllVehiclesByCursor(
+            @Parameter(description = "Continuation token from the previous slice") @RequestParam String cursor,
+            @Parameter(description = "Number of items per slice (1-100)") @RequestParam(defaultValue = "20") int size) {
+        
+        logger.debug("GET /vehicles - cursor: {}, size: {}", cursor, size);
+        
+        VehicleCursorPage vehicles = vehicleService.getAllVehicles(cursor, size);
+        return ResponseEntity.ok(vehicles);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get vehicle by ID", description = "Retrieve a specific vehicle by its ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved vehicle")
@@ -75,7 +114,7 @@ public class VehicleController {
             @Parameter(description = "Search term") @RequestParam(required = false) String q,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Sort field") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort field, or 'relevance' for ranked results") @RequestParam(defaultValue = VehicleService.RELEVANCE_SORT) String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir) {
         
         logger.debug("GET /vehicles/search - query: {}", q);
@@ -87,6 +126,22 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @GetMapping(value = "/search", params = "cursor")
+    @Operation(summary = "Search vehicles by cursor",
+               description = "Search vehicles newest first using keyset pagination")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved search results")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+    public ResponseEntity<VehicleCursorPage> searchVehiclesByCursor(
+            @Parameter(description = "Search term") @RequestParam(required = false) String q,
+            @Parameter(description = "Continuation token from the previous slice") @RequestParam String cursor,
+            @Parameter(description = "Number of items per slice (1-100)") @RequestParam(defaultValue = "20") int size) {
+        
+        logger.debug("GET /vehicles/search - query: {}, cursor: {}", q, cursor);
+        
+        VehicleCursorPage vehicles = vehicleService.searchVehicles(q, cursor, size);
+        return ResponseEntity.ok(vehicles);
+    }
+
     @GetMapping("/filter")
     @Operation(summary = "Filter vehicles", description = "Filter vehicles by multiple criteria")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved filtered results")
@@ -113,6 +168,29 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @GetMapping(value = "/filter", params = "cursor")
+    @Operation(summary = "Filter vehicles by cursor",
+               description = "Filter vehicles newest first using keyset pagination")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved filtered results")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+    public ResponseEntity<VehicleCursorPage> filterVehiclesByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String make,
+            @RequestParam(required = false) Integer startYear,
+            @RequestParam(required = false) Integer endYear,
+            @RequestParam(required = false) BigDecimal minValue,
+            @RequestParam(required = false) BigDecimal maxValue,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        logger.debug("GET /vehicles/filter - type: {}, make: {}, cursor: {}", type, make, cursor);
+        
+        VehicleCursorPage vehicles = vehicleService.getVehiclesWithFilters(
+            search, type, make, startYear, endYear, minValue, maxValue, cursor, size);
+        return ResponseEntity.ok(vehicles);
+    }
+
     @GetMapping("/type/{type}")
     @Operation(summary = "Get vehicles by type", description = "Retrieve vehicles filtered by type")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved vehicles by type")
@@ -159,6 +237,18 @@ public class VehicleController {
         }
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk import vehicles",
+               description = "Create many vehicles in one request; invalid or duplicate rows are reported individually")
+    @ApiResponse(responseCode = "200", description = "Import processed, see per-row errors")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized import")
+    public ResponseEntity<BulkImportResult> bulkImportVehicles(@RequestBody List<VehicleDTO> vehicleDTOs) {
+        logger.debug("POST /vehicles/bulk - {} vehicles", vehicleDTOs.size());
+        
+        BulkImportResult result = vehicleBulkImportService.importVehicles(vehicleDTOs);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update vehicle", description = "Update an existing vehicle")
     @ApiResponse(responseCode = "200", description = "Successfully updated vehicle")
@@ -195,13 +285,33 @@ public class VehicleController {
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export vehicles", description = "Stream all active vehicles as NDJSON or CSV")
+    @ApiResponse(responseCode = "200", description = "Export stream started")
+    @ApiResponse(responseCode = "400", description = "Unsupported export format")
+    public WebAsyncTask<Void> exportVehicles(
+            @Parameter(description = "Export format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+        logger.debug("GET /vehicles/export - format: {}", format);
+        
+        VehicleExportService.Format exportFormat = VehicleExportService.Format.fromString(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"vehicles." + exportFormat.getExtension() + "\"");
+        
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            vehicleExportService.export(exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/stats/dashboard")
     @Operation(summary = "Get dashboard statistics", description = "Retrieve key statistics for the dashboard")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         logger.debug("GET /vehicles/stats/dashboard");
         
-        Map<String, Object> stats = vehicleService.getDashboardStats();
+        Map<String, Object> stats = dashboardStatsService.getDashboardStats();
         return ResponseEntity.ok(stats);
     }
 
@@ -232,6 +342,13 @@ public class VehicleController {
                 .body(Map.of("error", e.getMessage()));
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        logger.warn("Concurrent vehicle update: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "The vehicle was changed by another request; reload it and try again"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception e) {
         logger.error("Unexpected error: {}", e.getMessage(), e);
@@ -0,0 +1,86 @@
+package com.virtualgarage.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Request DTO for running one parts search across several vehicles.
+ */
+public class BatchPartsSearchRequest {
+    
+    @NotEmpty(message = "At least one vehicle ID is required")
+    private List<Long> vehicleIds;
+    
+    @NotBlank(message = "Search query is required")
+    private String query;
+    
+    /**
+     * Optional: Include pricing estimates in results
+     */
+    private boolean includePricing = true;
+    
+    /**
+     * Optional: Include installation difficulty ratings
+     */
+    private boolean includeInstallationInfo = true;
+    
+    /**
+     * Optional: Maximum number of results per vehicle
+     */
+    private int maxResults = 5;
+    
+    public List<Long> getVehicleIds() {
+        return vehicleIds;
+    }
+    
+    public void setVehicleIds(List<Long> vehicleIds) {
+        this.vehicleIds = vehicleIds;
+    }
+    
+    public String getQuery() {
+        return query;
+    }
+    
+    public void setQuery(String query) {
+        this.query = query;
+    }
+    
+    public boolean isIncludePricing() {
+        return includePricing;
+    }
+    
+    public void setIncludePricing(boolean includePricing) {
+        this.includePricing = includePricing;
+    }
+    
+    public boolean isIncludeInstallationInfo() {
+        return includeInstallationInfo;
+    }
+    
+    public void setIncludeInstallationInfo(boolean includeInstallationInfo) {
+        this.includeInstallationInfo = includeInstallationInfo;
+    }
+    
+    public int getMaxResults() {
+        return maxResults;
+    }
+    
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+    
+    /**
+     * The equivalent single-vehicle request.
+     */
+    public PartsSearchRequest toVehicleRequest(Long vehicleId) {
+        PartsSearchRequest request = new PartsSearchRequest();
+        request.setVehicleId(vehicleId);
+        request.setQuery(query);
+        request.setIncludePricing(includePricing);
+        request.setIncludeInstallationInfo(includeInstallationInfo);
+        request.setMaxResults(maxResults);
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+package com.virtualgarage.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for a parts search across several vehicles.
+ * Vehicles that could not be searched are listed in errors, keyed by vehicle ID.
+ */
+public class BatchPartsSearchResponse {
+    
+    private String query;
+    private List<PartsSearchResponse> results = new ArrayList<>();
+    private Map<Long, String> errors = new LinkedHashMap<>();
+    private int llmCalls;
+    private String summary;
+    
+    public String getQuery() {
+        return query;
+    }
+    
+    public void setQuery(String query) {
+        this.query = query;
+    }
+    
+    public List<PartsSearchResponse> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<PartsSearchResponse> results) {
+        this.results = results;
+    }
+    
+    public Map<Long, String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(Map<Long, String> errors) {
+        this.errors = errors;
+    }
+    
+    public int getLlmCalls() {
+        return llmCalls;
+    }
+    
+    public void setLlmCalls(int llmCalls) {
+        this.llmCalls = llmCalls;
+    }
+    
+    public String getSummary() {
+        return summary;
+    }
+    
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+}
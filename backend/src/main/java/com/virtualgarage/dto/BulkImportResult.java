@@ -0,0 +1,109 @@
+package com.virtualgarage.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk vehicle import, with one entry per rejected row.
+ */
+public class BulkImportResult {
+    
+    private int total;
+    private int created;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+    
+    public BulkImportResult() {}
+    
+    public BulkImportResult(int total) {
+        this.total = total;
+    }
+    
+    public void addCreated(int count) {
+        this.created += count;
+    }
+    
+    public void addError(int index, String vinNumber, String message) {
+        this.errors.add(new RowError(index, vinNumber, message));
+        this.failed++;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    /**
+     * A rejected row, identified by its zero-based position in the request.
+     */
+    public static class RowError {
+        
+        private int index;
+        
+        @JsonProperty("vin_number")
+        private String vinNumber;
+        
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(int index, String vinNumber, String message) {
+            this.index = index;
+            this.vinNumber = vinNumber;
+            this.message = message;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public void setIndex(int index) {
+            this.index = index;
+        }
+        
+        public String getVinNumber() {
+            return vinNumber;
+        }
+        
+        public void setVinNumber(String vinNumber) {
+            this.vinNumber = vinNumber;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
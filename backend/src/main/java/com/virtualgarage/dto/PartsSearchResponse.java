@@ -1,5 +1,7 @@
 package com.virtualgarage.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -77,16 +79,37 @@ public class PartsSearchResponse {
      * AI-generated part suggestion.
      */
     public static class PartSuggestion {
+        // The prompt asks the model for camelCase names; the aliases accept them under the snake_case mapper
         private String name;
+        @JsonAlias("partNumber")
         private String partNumber;
         private String description;
         private String brand;
+        @JsonAlias("priceRange")
         private String priceRange;
+        @JsonAlias("installationDifficulty")
         private String installationDifficulty;
         private String notes;
+        @JsonAlias("whereToBuy")
         private List<String> whereToBuy;
         private List<InstallationVideo> installationVideos = new ArrayList<>();
         
+        /**
+         * Copies the suggestion text; installation videos are not copied.
+         */
+        public PartSuggestion copy() {
+            PartSuggestion copy = new PartSuggestion();
+            copy.name = name;
+            copy.partNumber = partNumber;
+            copy.description = description;
+            copy.brand = brand;
+            copy.priceRange = priceRange;
+            copy.installationDifficulty = installationDifficulty;
+            copy.notes = notes;
+            copy.whereToBuy = whereToBuy != null ? new ArrayList<>(whereToBuy) : null;
+            return copy;
+        }
+        
         public String getName() {
             return name;
         }
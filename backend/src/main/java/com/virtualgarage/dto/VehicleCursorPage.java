@@ -0,0 +1,63 @@
+package com.virtualgarage.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated vehicle listing.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the next slice.
+ */
+public class VehicleCursorPage {
+    
+    private List<VehicleDTO> content;
+    
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+    
+    @JsonProperty("has_next")
+    private boolean hasNext;
+    
+    private int size;
+    
+    public VehicleCursorPage() {}
+    
+    public VehicleCursorPage(List<VehicleDTO> content, String nextCursor, boolean hasNext, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.size = size;
+    }
+    
+    public List<VehicleDTO> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<VehicleDTO> content) {
+        this.content = content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -65,6 +65,9 @@ public class VehicleDTO {
     @JsonProperty("primary_image_url")
     private String primaryImageUrl;
     
+    @JsonProperty("image_enrichment_status")
+    private String imageEnrichmentStatus;
+    
     private String description;
     private String notes;
     private List<String> tags;
@@ -261,6 +264,14 @@ public class VehicleDTO {
         this.primaryImageUrl = primaryImageUrl;
     }
     
+    public String getImageEnrichmentStatus() {
+        return imageEnrichmentStatus;
+    }
+    
+    public void setImageEnrichmentStatus(String imageEnrichmentStatus) {
+        this.imageEnrichmentStatus = imageEnrichmentStatus;
+    }
+    
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,117 @@
+package com.virtualgarage.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resume point and counters for a vehicle image backfill run.
+ */
+@Entity
+@Table(name = "image_backfill_checkpoints")
+public class ImageBackfillCheckpoint {
+    
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RUNNING;
+    
+    @Column(name = "last_vehicle_id", nullable = false)
+    private Long lastVehicleId = 0L;
+    
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+    
+    @Column(name = "updated_count", nullable = false)
+    private Long updatedCount = 0L;
+    
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount = 0L;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum Status {
+        RUNNING,
+        STOPPED,
+        COMPLETED
+    }
+    
+    // Default constructor
+    public ImageBackfillCheckpoint() {}
+    
+    public ImageBackfillCheckpoint(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public Long getLastVehicleId() {
+        return lastVehicleId;
+    }
+    
+    public void setLastVehicleId(Long lastVehicleId) {
+        this.lastVehicleId = lastVehicleId;
+    }
+    
+    public Long getProcessedCount() {
+        return processedCount;
+    }
+    
+    public void setProcessedCount(Long processedCount) {
+        this.processedCount = processedCount;
+    }
+    
+    public Long getUpdatedCount() {
+        return updatedCount;
+    }
+    
+    public void setUpdatedCount(Long updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+    
+    public Long getFailedCount() {
+        return failedCount;
+    }
+    
+    public void setFailedCount(Long failedCount) {
+        this.failedCount = failedCount;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.virtualgarage.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted parts suggestions for one LLM prompt fingerprint, stored as JSON.
+ */
+@Entity
+@Table(name = "parts_search_cache", indexes = {
+    @Index(name = "idx_parts_search_cache_expires", columnList = "expires_at")
+})
+public class PartsSearchCacheEntry {
+    
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String suggestions;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Default constructor
+    public PartsSearchCacheEntry() {}
+    
+    public PartsSearchCacheEntry(String cacheKey, String suggestions, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.cacheKey = cacheKey;
+        this.suggestions = suggestions;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public String getCacheKey() {
+        return cacheKey;
+    }
+    
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+    
+    public String getSuggestions() {
+        return suggestions;
+    }
+    
+    public void setSuggestions(String suggestions) {
+        this.suggestions = suggestions;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,165 @@
+package com.virtualgarage.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One completed parts search: the vehicle it ran for, the query and the suggestions returned (as JSON).
+ */
+@Entity
+@Table(name = "parts_search_history", indexes = {
+    @Index(name = "idx_parts_search_history_created", columnList = "created_at"),
+    @Index(name = "idx_parts_search_history_signature", columnList = "vehicle_signature, normalized_query")
+})
+public class PartsSearchHistory {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parts_search_history_id_seq")
+    @SequenceGenerator(name = "parts_search_history_id_seq", sequenceName = "parts_search_history_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "vehicle_id")
+    private Long vehicleId;
+    
+    @Column(name = "vehicle_make", nullable = false, length = 100)
+    private String vehicleMake;
+    
+    @Column(name = "vehicle_model", nullable = false, length = 100)
+    private String vehicleModel;
+    
+    @Column(name = "vehicle_year", nullable = false)
+    private Integer vehicleYear;
+    
+    @Column(name = "vehicle_signature", nullable = false)
+    private String vehicleSignature;
+    
+    @Column(nullable = false, length = 500)
+    private String query;
+    
+    @Column(name = "normalized_query", nullable = false, length = 500)
+    private String normalizedQuery;
+    
+    @Column(name = "llm_provider", length = 50)
+    private String llmProvider;
+    
+    @Column(name = "latency_ms", nullable = false)
+    private Long latencyMs;
+    
+    @Column(name = "suggestion_count", nullable = false)
+    private Integer suggestionCount;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String suggestions;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Default constructor
+    public PartsSearchHistory() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+    
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+    
+    public String getVehicleMake() {
+        return vehicleMake;
+    }
+    
+    public void setVehicleMake(String vehicleMake) {
+        this.vehicleMake = vehicleMake;
+    }
+    
+    public String getVehicleModel() {
+        return vehicleModel;
+    }
+    
+    public void setVehicleModel(String vehicleModel) {
+        this.vehicleModel = vehicleModel;
+    }
+    
+    public Integer getVehicleYear() {
+        return vehicleYear;
+    }
+    
+    public void setVehicleYear(Integer vehicleYear) {
+        this.vehicleYear = vehicleYear;
+    }
+    
+    public String getVehicleSignature() {
+        return vehicleSignature;
+    }
+    
+    public void setVehicleSignature(String vehicleSignature) {
+        this.vehicleSignature = vehicleSignature;
+    }
+    
+    public String getQuery() {
+        return query;
+    }
+    
+    public void setQuery(String query) {
+        this.query = query;
+    }
+    
+    public String getNormalizedQuery() {
+        return normalizedQuery;
+    }
+    
+    public void setNormalizedQuery(String normalizedQuery) {
+        this.normalizedQuery = normalizedQuery;
+    }
+    
+    public String getLlmProvider() {
+        return llmProvider;
+    }
+    
+    public void setLlmProvider(String llmProvider) {
+        this.llmProvider = llmProvider;
+    }
+    
+    public Long getLatencyMs() {
+        return latencyMs;
+    }
+    
+    public void setLatencyMs(Long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+    
+    public Integer getSuggestionCount() {
+        return suggestionCount;
+    }
+    
+    public void setSuggestionCount(Integer suggestionCount) {
+        this.suggestionCount = suggestionCount;
+    }
+    
+    public String getSuggestions() {
+        return suggestions;
+    }
+    
+    public void setSuggestions(String suggestions) {
+        this.suggestions = suggestions;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
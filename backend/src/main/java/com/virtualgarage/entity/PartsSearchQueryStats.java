@@ -0,0 +1,109 @@
+package com.virtualgarage.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running count of one normalized query for a make/model, with the most recent suggestions.
+ * Make, model and query are stored lower-cased; the key is a hash of the three.
+ */
+@Entity
+@Table(name = "parts_search_query_stats", indexes = {
+    @Index(name = "idx_parts_search_query_stats_vehicle", columnList = "vehicle_make, vehicle_model, search_count DESC")
+})
+public class PartsSearchQueryStats {
+    
+    @Id
+    @Column(name = "stats_key", length = 64)
+    private String statsKey;
+    
+    @Column(name = "vehicle_make", nullable = false, length = 100)
+    private String vehicleMake;
+    
+    @Column(name = "vehicle_model", nullable = false, length = 100)
+    private String vehicleModel;
+    
+    @Column(name = "normalized_query", nullable = false, length = 500)
+    private String normalizedQuery;
+    
+    @Column(name = "search_count", nullable = false)
+    private Long searchCount;
+    
+    @Column(name = "last_suggestions", nullable = false, columnDefinition = "TEXT")
+    private String lastSuggestions;
+    
+    @Column(name = "last_searched_at", nullable = false)
+    private LocalDateTime lastSearchedAt;
+    
+    // Default constructor
+    public PartsSearchQueryStats() {}
+    
+    public PartsSearchQueryStats(String statsKey, String vehicleMake, String vehicleModel, String normalizedQuery,
+                                 Long searchCount, String lastSuggestions, LocalDateTime lastSearchedAt) {
+        this.statsKey = statsKey;
+        this.vehicleMake = vehicleMake;
+        this.vehicleModel = vehicleModel;
+        this.normalizedQuery = normalizedQuery;
+        this.searchCount = searchCount;
+        this.lastSuggestions = lastSuggestions;
+        this.lastSearchedAt = lastSearchedAt;
+    }
+    
+    // Getters and Setters
+    public String getStatsKey() {
+        return statsKey;
+    }
+    
+    public void setStatsKey(String statsKey) {
+        this.statsKey = statsKey;
+    }
+    
+    public String getVehicleMake() {
+        return vehicleMake;
+    }
+    
+    public void setVehicleMake(String vehicleMake) {
+        this.vehicleMake = vehicleMake;
+    }
+    
+    public String getVehicleModel() {
+        return vehicleModel;
+    }
+    
+    public void setVehicleModel(String vehicleModel) {
+        this.vehicleModel = vehicleModel;
+    }
+    
+    public String getNormalizedQuery() {
+        return normalizedQuery;
+    }
+    
+    public void setNormalizedQuery(String normalizedQuery) {
+        this.normalizedQuery = normalizedQuery;
+    }
+    
+    public Long getSearchCount() {
+        return searchCount;
+    }
+    
+    public void setSearchCount(Long searchCount) {
+        this.searchCount = searchCount;
+    }
+    
+    public String getLastSuggestions() {
+        return lastSuggestions;
+    }
+    
+    public void setLastSuggestions(String lastSuggestions) {
+        this.lastSuggestions = lastSuggestions;
+    }
+    
+    public LocalDateTime getLastSearchedAt() {
+        return lastSearchedAt;
+    }
+    
+    public void setLastSearchedAt(LocalDateTime lastSearchedAt) {
+        this.lastSearchedAt = lastSearchedAt;
+    }
+}
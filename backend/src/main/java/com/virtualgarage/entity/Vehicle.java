@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -21,8 +22,10 @@ import java.util.List;
 })
 public class Vehicle {
     
+    // Sequence ids (pooled, see V006) keep Hibernate JDBC insert batching enabled
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_id_seq")
+    @SequenceGenerator(name = "vehicle_id_seq", sequenceName = "vehicles_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Vehicle name is required")
@@ -91,6 +94,10 @@ public class Vehicle {
     @Column(name = "primary_image_url", length = 500)
     private String primaryImageUrl;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_enrichment_status", nullable = false, length = 20)
+    private ImageEnrichmentStatus imageEnrichmentStatus = ImageEnrichmentStatus.NOT_REQUIRED;
+    
     @Column(columnDefinition = "TEXT")
     private String description;
     
@@ -98,6 +105,7 @@ public class Vehicle {
     private String notes;
     
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "vehicle_tags", joinColumns = @JoinColumn(name = "vehicle_id"))
     @Column(name = "tag", length = 50)
     private List<String> tags = new ArrayList<>();
@@ -126,6 +134,13 @@ public class Vehicle {
     @Version
     private Long version;
     
+    public enum ImageEnrichmentStatus {
+        NOT_REQUIRED,
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+    
     // Default constructor
     public Vehicle() {}
     
@@ -307,6 +322,14 @@ public class Vehicle {
         this.primaryImageUrl = primaryImageUrl;
     }
     
+    public ImageEnrichmentStatus getImageEnrichmentStatus() {
+        return imageEnrichmentStatus;
+    }
+    
+    public void setImageEnrichmentStatus(ImageEnrichmentStatus imageEnrichmentStatus) {
+        this.imageEnrichmentStatus = imageEnrichmentStatus;
+    }
+    
     public String getDescription() {
         return description;
     }
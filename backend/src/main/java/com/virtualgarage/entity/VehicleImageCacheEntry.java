@@ -0,0 +1,85 @@
+package com.virtualgarage.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted result of an image scrape for a normalized make/model/year.
+ * Fallback entries record that no real image was found so the lookup is not repeated.
+ */
+@Entity
+@Table(name = "vehicle_image_cache", indexes = {
+    @Index(name = "idx_vehicle_image_cache_expires", columnList = "expires_at")
+})
+public class VehicleImageCacheEntry {
+    
+    @Id
+    @Column(name = "cache_key", length = 255)
+    private String cacheKey;
+    
+    @Column(name = "image_url", nullable = false, length = 500)
+    private String imageUrl;
+    
+    @Column(name = "is_fallback", nullable = false)
+    private Boolean isFallback = false;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Default constructor
+    public VehicleImageCacheEntry() {}
+    
+    public VehicleImageCacheEntry(String cacheKey, String imageUrl, boolean isFallback,
+                                  LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.cacheKey = cacheKey;
+        this.imageUrl = imageUrl;
+        this.isFallback = isFallback;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public String getCacheKey() {
+        return cacheKey;
+    }
+    
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
+    public Boolean getIsFallback() {
+        return isFallback;
+    }
+    
+    public void setIsFallback(Boolean isFallback) {
+        this.isFallback = isFallback;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.virtualgarage.event;
+
+import java.util.Map;
+
+/**
+ * Application event published by {@code VehicleService} whenever a vehicle is written.
+ * Listeners that need committed data should use {@code @TransactionalEventListener}.
+ */
+public class VehicleChangeEvent {
+    
+    private final String eventType;
+    private final Long vehicleId;
+    private final Map<String, Object> data;
+    
+    public VehicleChangeEvent(String eventType, Long vehicleId) {
+        this(eventType, vehicleId, Map.of());
+    }
+    
+    public VehicleChangeEvent(String eventType, Long vehicleId, Map<String, Object> data) {
+        this.eventType = eventType;
+        this.vehicleId = vehicleId;
+        this.data = data;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+    
+    /**
+     * Summary of the vehicle for downstream consumers; empty for deletes.
+     */
+    public Map<String, Object> getData() {
+        return data;
+    }
+    
+    @Override
+    public String toString() {
+        return "VehicleChangeEvent{" +
+                "eventType='" + eventType + '\'' +
+                ", vehicleId=" + vehicleId +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.virtualgarage.event;
+
+import java.util.Map;
+
+/**
+ * Application event published by {@code VehicleService} when a vehicle's details are read.
+ * Kept apart from {@link VehicleChangeEvent} so listeners that react to writes ignore views.
+ */
+public class VehicleViewedEvent {
+    
+    private final Long vehicleId;
+    private final Map<String, Object> data;
+    
+    public VehicleViewedEvent(Long vehicleId, Map<String, Object> data) {
+        this.vehicleId = vehicleId;
+        this.data = data;
+    }
+    
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+    
+    public Map<String, Object> getData() {
+        return data;
+    }
+    
+    @Override
+    public String toString() {
+        return "VehicleViewedEvent{" +
+                "vehicleId=" + vehicleId +
+                '}';
+    }
+}
@@ -0,0 +1,107 @@
+package com.virtualgarage.llm;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consecutive-failure circuit breaker for one LLM provider.
+ * After {@code failureThreshold} failures in a row calls are refused for {@code openDuration};
+ * then a single probe call is let through and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Asks permission for a call. Every permitted call must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                default:
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The permitted call never reached the provider (it was refused locally),
+     * so it says nothing about the provider's health.
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
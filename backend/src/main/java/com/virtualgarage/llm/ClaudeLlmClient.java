@@ -13,6 +13,12 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Claude (Anthropic) LLM client implementation.
@@ -27,13 +33,20 @@ public class ClaudeLlmClient implements LlmClient {
     private final LlmProperties properties;
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
+    private final LlmTokenMetrics tokenMetrics;
     
-    public ClaudeLlmClient(LlmProperties properties, ObjectMapper objectMapper) {
+    private volatile LlmHealth health;
+    
+    public ClaudeLlmClient(LlmProperties properties, ObjectMapper objectMapper, LlmTokenMetrics tokenMetrics) {
         this.properties = properties;
         this.objectMapper = objectMapper;
+        this.tokenMetrics = tokenMetrics;
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30))
                 .build();
+        this.health = isApiKeyConfigured()
+                ? LlmHealth.unchecked(true, null)
+                : LlmHealth.unchecked(false, "API key not configured");
     }
     
     @Override
@@ -41,36 +54,109 @@ public class ClaudeLlmClient implements LlmClient {
         LlmProperties.Claude config = properties.getClaude();
         
         if (!isAvailable()) {
-            throw new LlmException(PROVIDER_NAME, "Claude API key not configured", 0);
+            throw new LlmException(PROVIDER_NAME, "Claude API not available: " + health.error(), 0);
         }
         
         try {
-            String requestBody = buildRequestBody(systemPrompt, userMessage, config);
+            HttpRequest request = buildRequest(systemPrompt, userMessage, config, false);
             
-            logger.debug("Sending request to Claude API with model: {}", config.getModel());
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return handleResponse(response);
             
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(config.getBaseUrl() + "/v1/messages"))
-                    .header("Content-Type", "application/json")
-                    .header("x-api-key", config.getApiKey())
-                    .header("anthropic-version", API_VERSION)
-                    .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .build();
+        } catch (LlmException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error calling Claude API", e);
+            throw new LlmException(PROVIDER_NAME, "Failed to call API: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<String> chatAsync(String systemPrompt, String userMessage) {
+        LlmProperties.Claude config = properties.getClaude();
+        
+        if (!isAvailable()) {
+            return CompletableFuture.failedFuture(new LlmException(PROVIDER_NAME, "Claude API not available: " + health.error(), 0));
+        }
+        
+        HttpRequest request;
+        try {
+            request = buildRequest(systemPrompt, userMessage, config, false);
+        } catch (LlmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return handleResponse(response);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    logger.error("Error calling Claude API", cause);
+                    throw new LlmException(PROVIDER_NAME, "Failed to call API: " + cause.getMessage(), cause);
+                });
+    }
+    
+    @Override
+    public String chatStream(String systemPrompt, String userMessage, Consumer<String> onText) {
+        LlmProperties.Claude config = properties.getClaude();
+        
+        if (!isAvailable()) {
+            throw new LlmException(PROVIDER_NAME, "Claude API not available: " + health.error(), 0);
+        }
+        
+        try {
+            HttpRequest request = buildRequest(systemPrompt, userMessage, config, true);
             
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
             
-            if (response.statusCode() != 200) {
-                logger.error("Claude API error: status={}, body={}", response.statusCode(), response.body());
-                throw new LlmException(PROVIDER_NAME, "API request failed: " + response.body(), response.statusCode());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() != 200) {
+                    String body = lines.collect(Collectors.joining("\n"));
+                    logger.error("Claude API error: status={}, body={}", response.statusCode(), body);
+                    throw new LlmException(PROVIDER_NAME, "API request failed: " + body, response.statusCode());
+                }
+                
+                // Server-sent events; text arrives in content_block_delta data payloads
+                StringBuilder content = new StringBuilder();
+                ObjectNode usage = objectMapper.createObjectNode();
+                Iterator<String> events = lines.iterator();
+                while (events.hasNext()) {
+                    String line = events.next();
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    JsonNode event = objectMapper.readTree(line.substring(5).trim());
+                    String type = event.path("type").asText();
+                    if ("message_start".equals(type)) {
+                        JsonNode startUsage = event.path("message").path("usage");
+                        if (startUsage.isObject()) {
+                            usage.setAll((ObjectNode) startUsage);
+                        }
+                    } else if ("message_delta".equals(type)) {
+                        // Output token count is cumulative on each delta
+                        usage.set("output_tokens", event.path("usage").path("output_tokens"));
+                    } else if ("content_block_delta".equals(type)) {
+                        String text = event.path("delta").path("text").asText("");
+                        if (!text.isEmpty()) {
+                            content.append(text);
+                            onText.accept(text);
+                        }
+                    } else if ("error".equals(type)) {
+                        throw new LlmException(PROVIDER_NAME, "Stream failed: " + event.path("error").path("message").asText(), 0);
+                    } else if ("message_stop".equals(type)) {
+                        break;
+                    }
+                }
+                tokenMetrics.recordAnthropicUsage(PROVIDER_NAME, config.getModel(), usage);
+                return content.toString();
             }
             
-            return parseResponse(response.body());
-            
         } catch (LlmException e) {
             throw e;
         } catch (Exception e) {
-            logger.error("Error calling Claude API", e);
+            logger.error("Error streaming from Claude API", e);
             throw new LlmException(PROVIDER_NAME, "Failed to call API: " + e.getMessage(), e);
         }
     }
@@ -80,20 +166,108 @@ public class ClaudeLlmClient implements LlmClient {
         return PROVIDER_NAME;
     }
     
+    @Override
+    public String getModelName() {
+        return properties.getClaude().getModel();
+    }
+    
     @Override
     public boolean isAvailable() {
+        return health.available();
+    }
+    
+    @Override
+    public LlmHealth checkHealth() {
+        if (!isApiKeyConfigured()) {
+            health = LlmHealth.down("API key not configured", null);
+            return health;
+        }
+        
+        LlmProperties.Claude config = properties.getClaude();
+        long start = System.nanoTime();
+        try {
+            // Listing models is free and verifies both connectivity and the API key
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(config.getBaseUrl() + "/v1/models?limit=1"))
+                    .header("x-api-key", config.getApiKey())
+                    .header("anthropic-version", API_VERSION)
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long latencyMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            if (response.statusCode() == 200) {
+                health = LlmHealth.up(latencyMs);
+            } else if (response.statusCode() == 401 || response.statusCode() == 403) {
+                health = LlmHealth.down("API key rejected", latencyMs);
+            } else {
+                health = LlmHealth.down("Health check returned status " + response.statusCode(), latencyMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            health = LlmHealth.down("Health check interrupted", null);
+        } catch (Exception e) {
+            logger.debug("Claude health check failed: {}", e.getMessage());
+            health = LlmHealth.down("API not reachable: " + e.getMessage(), null);
+        }
+        return health;
+    }
+    
+    @Override
+    public LlmHealth getHealth() {
+        return health;
+    }
+    
+    private boolean isApiKeyConfigured() {
         String apiKey = properties.getClaude().getApiKey();
         return apiKey != null && !apiKey.trim().isEmpty();
     }
     
-    private String buildRequestBody(String systemPrompt, String userMessage, LlmProperties.Claude config) {
+    private HttpRequest buildRequest(String systemPrompt, String userMessage,
+                                     LlmProperties.Claude config, boolean stream) {
+        String requestBody = buildRequestBody(systemPrompt, userMessage, config, stream);
+        
+        logger.debug("Sending {}request to Claude API with model: {}", stream ? "streaming " : "", config.getModel());
+        
+        return HttpRequest.newBuilder()
+                .uri(URI.create(config.getBaseUrl() + "/v1/messages"))
+                .header("Content-Type", "application/json")
+                .header("x-api-key", config.getApiKey())
+                .header("anthropic-version", API_VERSION)
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+    }
+    
+    private String handleResponse(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            logger.error("Claude API error: status={}, body={}", response.statusCode(), response.body());
+            throw new LlmException(PROVIDER_NAME, "API request failed: " + response.body(), response.statusCode());
+        }
+        return parseResponse(response.body());
+    }
+    
+    private String buildRequestBody(String systemPrompt, String userMessage, LlmProperties.Claude config, boolean stream) {
         try {
             ObjectNode root = objectMapper.createObjectNode();
             root.put("model", config.getModel());
             root.put("max_tokens", config.getMaxTokens());
+            if (stream) {
+                root.put("stream", true);
+            }
             
             if (systemPrompt != null && !systemPrompt.trim().isEmpty()) {
-                root.put("system", systemPrompt);
+                if (config.isPromptCaching()) {
+                    // The system prompt is the same on every call; cache it as the prompt prefix
+                    ObjectNode systemBlock = root.putArray("system").addObject();
+                    systemBlock.put("type", "text");
+                    systemBlock.put("text", systemPrompt);
+                    systemBlock.putObject("cache_control").put("type", "ephemeral");
+                } else {
+                    root.put("system", systemPrompt);
+                }
             }
             
             ArrayNode messages = root.putArray("messages");
@@ -110,6 +284,7 @@ public class ClaudeLlmClient implements LlmClient {
     private String parseResponse(String responseBody) {
         try {
             JsonNode root = objectMapper.readTree(responseBody);
+            tokenMetrics.recordAnthropicUsage(PROVIDER_NAME, properties.getClaude().getModel(), root.path("usage"));
             JsonNode content = root.path("content");
             
             if (content.isArray() && content.size() > 0) {
@@ -0,0 +1,213 @@
+package com.virtualgarage.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control in front of a provider that can only run a few generations at once.
+ * At most {@code maxConcurrent} calls hold a permit; the rest wait, interactive calls ahead of
+ * background ones. A call is refused up front with {@link LlmOverloadedException} when the queue
+ * is full or its estimated wait (from recent call durations) would exceed {@code maxWait}, and a
+ * waiter still queued after {@code maxWait} is refused when its turn comes. No thread is blocked
+ * while waiting unless {@link #admit(LlmPriority)} is used.
+ */
+final class LlmAdmissionQueue {
+    
+    private record Waiter(LlmPriority priority, long seq, long enqueuedAt, CompletableFuture<Permit> admitted) {
+    }
+    
+    private final String provider;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::seq));
+    private final Map<LlmPriority, Timer> waitTimes = new EnumMap<>(LlmPriority.class);
+    private final Map<LlmPriority, Counter> shed = new EnumMap<>(LlmPriority.class);
+    
+    private int active;
+    private long nextSeq;
+    // Moving average of how long a permit is held, used to estimate queue wait
+    private double averageHoldNanos;
+    
+    LlmAdmissionQueue(String provider, int maxConcurrent, int maxQueued, Duration maxWait, MeterRegistry meterRegistry) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.provider = provider;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        for (LlmPriority priority : LlmPriority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            waitTimes.put(priority, Timer.builder("llm.admission.wait")
+                    .tag("provider", provider)
+                    .tag("priority", tag)
+                    .description("Time LLM calls waited for a free slot on the provider")
+                    .register(meterRegistry));
+            shed.put(priority, Counter.builder("llm.admission.shed")
+                    .tag("provider", provider)
+                    .tag("priority", tag)
+                    .description("LLM calls refused because the provider's queue was too long")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("llm.admission.queue", this, LlmAdmissionQueue::queued)
+                .tag("provider", provider)
+                .description("LLM calls waiting for a free slot on the provider")
+                .register(meterRegistry);
+        Gauge.builder("llm.admission.active", this, LlmAdmissionQueue::active)
+                .tag("provider", provider)
+                .description("LLM calls currently running on the provider")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Completes with a permit once a slot is free; the permit must be released when the call ends.
+     */
+    CompletableFuture<Permit> acquire(LlmPriority priority) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (active < maxConcurrent && waiting.isEmpty()) {
+                active++;
+                waitTimes.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return CompletableFuture.completedFuture(new Permit(now));
+            }
+            
+            long ahead = waiting.stream().filter(w -> w.priority().compareTo(priority) <= 0).count();
+            long estimatedWait = (long) (averageHoldNanos * (ahead + 1) / maxConcurrent);
+            if (waiting.size() >= maxQueued || estimatedWait > maxWaitNanos) {
+                shed.get(priority).increment();
+                return CompletableFuture.failedFuture(overloaded(
+                        "Too many queued requests (" + waiting.size() + " waiting)", estimatedWait));
+            }
+            
+            Waiter waiter = new Waiter(priority, nextSeq++, now, new CompletableFuture<>());
+            waiting.add(waiter);
+            return waiter.admitted();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Blocking variant of {@link #acquire(LlmPriority)} for synchronous calls.
+     */
+    Permit admit(LlmPriority priority) {
+        CompletableFuture<Permit> admitted = acquire(priority);
+        try {
+            return admitted.get();
+        } catch (InterruptedException e) {
+            // A cancelled waiter is skipped; a permit handed over concurrently is given back
+            if (!admitted.cancel(false)) {
+                admitted.thenAccept(Permit::release);
+            }
+            Thread.currentThread().interrupt();
+            throw new LlmException(provider, "Interrupted while waiting for a free slot", 0);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LlmException llmException) {
+                throw llmException;
+            }
+            throw new LlmException(provider, "Failed to wait for a free slot", e.getCause());
+        }
+    }
+    
+    int queued() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int active() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private LlmOverloadedException overloaded(String reason, long estimatedWaitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(Math.min(estimatedWaitNanos, maxWaitNanos)));
+        return new LlmOverloadedException(provider, reason + ", retry in " + retryAfter + "s", retryAfter);
+    }
+    
+    /**
+     * Hands the slot to the next waiter, refusing those that have waited past the limit.
+     */
+    private void release(long heldNanos) {
+        lock.lock();
+        try {
+            averageHoldNanos = averageHoldNanos == 0 ? heldNanos : averageHoldNanos * 0.8 + heldNanos * 0.2;
+        } finally {
+            lock.unlock();
+        }
+        
+        while (true) {
+            Waiter next;
+            boolean expired;
+            long now = System.nanoTime();
+            lock.lock();
+            try {
+                next = waiting.poll();
+                while (next != null && next.admitted().isDone()) {
+                    next = waiting.poll();
+                }
+                if (next == null) {
+                    active--;
+                    return;
+                }
+                expired = now - next.enqueuedAt() > maxWaitNanos;
+            } finally {
+                lock.unlock();
+            }
+            
+            if (expired) {
+                shed.get(next.priority()).increment();
+                next.admitted().completeExceptionally(overloaded("Timed out waiting for a free slot", maxWaitNanos));
+                continue;
+            }
+            waitTimes.get(next.priority()).record(now - next.enqueuedAt(), TimeUnit.NANOSECONDS);
+            if (next.admitted().complete(new Permit(now))) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * A running call's slot. Releasing more than once has no effect.
+     */
+    final class Permit {
+        
+        private final long admittedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private Permit(long admittedAt) {
+            this.admittedAt = admittedAt;
+        }
+        
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                LlmAdmissionQueue.this.release(System.nanoTime() - admittedAt);
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.virtualgarage.llm;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * Interface for LLM (Large Language Model) clients.
  * Abstraction layer to support multiple LLM providers (Claude, Grok, etc.)
@@ -16,6 +19,26 @@ public interface LlmClient {
      */
     String chat(String systemPrompt, String userMessage);
     
+    /**
+     * Non-blocking variant of {@link #chat(String, String)}; no thread waits while the model generates.
+     *
+     * @param systemPrompt The system prompt that sets the context/behavior
+     * @param userMessage The user's message/query
+     * @return Future completed with the LLM's response text, or exceptionally with an LlmException
+     */
+    CompletableFuture<String> chatAsync(String systemPrompt, String userMessage);
+    
+    /**
+     * Send a chat message and receive the response as it is generated.
+     *
+     * @param systemPrompt The system prompt that sets the context/behavior
+     * @param userMessage The user's message/query
+     * @param onText Called with each piece of text as the model produces it
+     * @return The complete response text
+     * @throws LlmException if the API call fails
+     */
+    String chatStream(String systemPrompt, String userMessage, Consumer<String> onText);
+    
     /**
      * Get the provider name for this client.
      *
@@ -23,10 +46,33 @@ public interface LlmClient {
      */
     String getProviderName();
     
+    /**
+     * Get the model this client sends requests to.
+     *
+     * @return Model name as configured for the provider
+     */
+    String getModelName();
+    
     /**
      * Check if the client is properly configured and ready to use.
+     * Reads the status from the last {@link #checkHealth()}; never makes a network call.
      *
      * @return true if the client can make API calls
      */
     boolean isAvailable();
+    
+    /**
+     * Probe the provider and update the status reported by {@link #isAvailable()}.
+     * Called from {@link LlmHealthMonitor}, not on the request path.
+     *
+     * @return The new status
+     */
+    LlmHealth checkHealth();
+    
+    /**
+     * Get the status from the last health check.
+     *
+     * @return Last known status
+     */
+    LlmHealth getHealth();
 }
@@ -1,13 +1,19 @@
 package com.virtualgarage.llm;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Factory for selecting the appropriate LLM client based on configuration.
+ * When {@code llm.routing} lists fallback providers or enables hedging, the configured
+ * provider is wrapped in a {@link RoutingLlmClient}.
  */
 @Component
 public class LlmClientFactory {
@@ -16,13 +22,16 @@ public class LlmClientFactory {
     
     private final Map<String, LlmClient> clients;
     private final LlmProperties properties;
+    private final RoutingLlmClient routingClient;
     
-    public LlmClientFactory(ClaudeLlmClient claudeClient, OllamaLlmClient ollamaClient, LlmProperties properties) {
+    public LlmClientFactory(ClaudeLlmClient claudeClient, OllamaLlmClient ollamaClient,
+                            LlmProperties properties, MeterRegistry meterRegistry) {
         this.properties = properties;
         this.clients = Map.of(
                 "claude", claudeClient,
                 "ollama", ollamaClient
         );
+        this.routingClient = createRoutingClient(meterRegistry);
     }
     
     /**
@@ -32,13 +41,7 @@ public class LlmClientFactory {
      * @throws LlmException if no valid client is available
      */
     public LlmClient getClient() {
-        String provider = properties.getProvider().toLowerCase();
-        
-        LlmClient client = clients.get(provider);
-        if (client == null) {
-            logger.warn("Unknown LLM provider: {}. Falling back to claude.", provider);
-            client = clients.get("claude");
-        }
+        LlmClient client = getActiveClient();
         
         if (client == null || !client.isAvailable()) {
             throw new LlmException("No configured LLM client available. Check your API key configuration.");
@@ -57,4 +60,61 @@ public class LlmClientFactory {
     public LlmClient getClient(String provider) {
         return clients.get(provider.toLowerCase());
     }
+    
+    /**
+     * The client {@link #getClient()} returns, without checking that it is available.
+     */
+    public LlmClient getActiveClient() {
+        return routingClient != null ? routingClient : primaryClient();
+    }
+    
+    /**
+     * All provider clients, whether or not they are configured.
+     */
+    public List<LlmClient> getClients() {
+        return clients.values().stream()
+                .sorted(Comparator.comparing(LlmClient::getProviderName))
+                .toList();
+    }
+    
+    /**
+     * The failover/hedging client, or null when routing is not configured.
+     */
+    public RoutingLlmClient getRoutingClient() {
+        return routingClient;
+    }
+    
+    private LlmClient primaryClient() {
+        String provider = properties.getProvider().toLowerCase();
+        
+        LlmClient client = clients.get(provider);
+        if (client == null) {
+            logger.warn("Unknown LLM provider: {}. Falling back to claude.", provider);
+            client = clients.get("claude");
+        }
+        return client;
+    }
+    
+    private RoutingLlmClient createRoutingClient(MeterRegistry meterRegistry) {
+        LlmProperties.Routing routing = properties.getRouting();
+        if (routing.getFallback().isEmpty() && !routing.getHedging().isEnabled()) {
+            return null;
+        }
+        
+        List<LlmClient> ordered = new ArrayList<>();
+        ordered.add(primaryClient());
+        for (String provider : routing.getFallback()) {
+            LlmClient client = clients.get(provider.toLowerCase());
+            if (client == null) {
+                logger.warn("Ignoring unknown LLM fallback provider: {}", provider);
+            } else if (!ordered.contains(client)) {
+                ordered.add(client);
+            }
+        }
+        
+        logger.info("LLM routing order: {} (hedging {})",
+                ordered.stream().map(LlmClient::getProviderName).toList(),
+                routing.getHedging().isEnabled() ? "enabled" : "disabled");
+        return new RoutingLlmClient(ordered, routing, meterRegistry);
+    }
 }
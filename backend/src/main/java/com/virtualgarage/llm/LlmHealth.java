@@ -0,0 +1,29 @@
+package com.virtualgarage.llm;
+
+import java.time.Instant;
+
+/**
+ * Result of the last connectivity check against an LLM provider.
+ *
+ * @param available  Whether the provider can take requests
+ * @param latencyMs  Round trip of the check, or null if it never got a response
+ * @param error      Why the provider is unavailable, or null
+ * @param checkedAt  When the check ran, or null before the first check
+ */
+public record LlmHealth(boolean available, Long latencyMs, String error, Instant checkedAt) {
+
+    public static LlmHealth up(long latencyMs) {
+        return new LlmHealth(true, latencyMs, null, Instant.now());
+    }
+
+    public static LlmHealth down(String error, Long latencyMs) {
+        return new LlmHealth(false, latencyMs, error, Instant.now());
+    }
+
+    /**
+     * Status assumed until the first background check completes.
+     */
+    public static LlmHealth unchecked(boolean available, String error) {
+        return new LlmHealth(available, null, error, null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.virtualgarage.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Probes every LLM provider in the background so {@link LlmClient#isAvailable()}
+ * is a memory read instead of an HTTP round trip on each parts search.
+ */
+@Component
+public class LlmHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmHealthMonitor.class);
+
+    private final LlmClientFactory clientFactory;
+
+    public LlmHealthMonitor(LlmClientFactory clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${llm.health.interval-ms:15000}")
+    public void refresh() {
+        for (LlmClient client : clientFactory.getClients()) {
+            LlmHealth previous = client.getHealth();
+            LlmHealth current;
+            try {
+                current = client.checkHealth();
+            } catch (RuntimeException e) {
+                logger.warn("Health check for LLM provider {} failed: {}", client.getProviderName(), e.getMessage());
+                continue;
+            }
+            if (previous.available() && !current.available()) {
+                logger.warn("LLM provider {} is unavailable: {}", client.getProviderName(), current.error());
+            } else if (!previous.available() && current.available()) {
+                logger.info("LLM provider {} is available ({} ms)", client.getProviderName(), current.latencyMs());
+            }
+        }
+    }
+
+    /**
+     * Last known status per provider, from memory.
+     */
+    public Map<String, LlmHealth> getStatuses() {
+        Map<String, LlmHealth> statuses = new LinkedHashMap<>();
+        clientFactory.getClients().forEach(client -> statuses.put(client.getProviderName(), client.getHealth()));
+        return statuses;
+    }
+
+    /**
+     * The provider parts search uses, and whether it (or a fallback) can take requests.
+     */
+    public LlmClient getActiveClient() {
+        return clientFactory.getActiveClient();
+    }
+}
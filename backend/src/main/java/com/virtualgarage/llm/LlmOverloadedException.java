@@ -0,0 +1,18 @@
+package com.virtualgarage.llm;
+
+/**
+ * Thrown when a provider's request queue is too long to admit a call within its timeout.
+ */
+public class LlmOverloadedException extends LlmException {
+    
+    private final long retryAfterSeconds;
+    
+    public LlmOverloadedException(String provider, String message, long retryAfterSeconds) {
+        super(provider, message, 429);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.virtualgarage.llm;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of an LLM call when a provider queues requests. Calls are interactive unless
+ * started inside {@link #callAs(LlmPriority, Supplier)}; the priority is read on the thread
+ * that makes the call.
+ */
+public enum LlmPriority {
+    
+    INTERACTIVE,
+    BACKGROUND;
+    
+    private static final ThreadLocal<LlmPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+    
+    public static LlmPriority current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Runs {@code call} with LLM calls it makes on this thread at the given priority.
+     */
+    public static <T> T callAs(LlmPriority priority, Supplier<T> call) {
+        LlmPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.virtualgarage.llm;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for LLM clients.
  */
@@ -16,6 +19,8 @@ public class LlmProperties {
     private Claude claude = new Claude();
     private Grok grok = new Grok();
     private Ollama ollama = new Ollama();
+    private Cache cache = new Cache();
+    private Routing routing = new Routing();
     
     public String getProvider() {
         return provider;
@@ -49,12 +54,40 @@ public class LlmProperties {
         this.ollama = ollama;
     }
     
+    public Cache getCache() {
+        return cache;
+    }
+    
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+    
+    public Routing getRouting() {
+        return routing;
+    }
+    
+    public void setRouting(Routing routing) {
+        this.routing = routing;
+    }
+    
     public static class Claude {
         private String apiKey;
         private String model = "claude-sonnet-4-20250514";
         private String baseUrl = "https://api.anthropic.com";
         private int maxTokens = 4096;
         private int timeoutSeconds = 60;
+        /**
+         * Mark the system prompt with cache_control so repeated calls reuse the cached prefix
+         */
+        private boolean promptCaching = true;
+        
+        public boolean isPromptCaching() {
+            return promptCaching;
+        }
+        
+        public void setPromptCaching(boolean promptCaching) {
+            this.promptCaching = promptCaching;
+        }
         
         public String getApiKey() {
             return apiKey;
@@ -150,6 +183,30 @@ public class LlmProperties {
         private String model = "deepseek-coder-v2:latest";
         private int maxTokens = 4096;
         private int timeoutSeconds = 120;
+        /**
+         * Generations sent to the server at once; further calls wait in the admission queue
+         */
+        private int maxConcurrent = 2;
+        /**
+         * Calls allowed to wait before new ones are refused
+         */
+        private int maxQueued = 50;
+        
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+        
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+        
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+        
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
         
         public String getBaseUrl() {
             return baseUrl;
@@ -183,4 +240,142 @@ public class LlmProperties {
             this.timeoutSeconds = timeoutSeconds;
         }
     }
+    
+    /**
+     * Cache of parsed parts suggestions keyed by provider, model and prompt.
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private long maxEntries = 1000;
+        private int ttlMinutes = 1440;
+        private boolean persistent = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+        
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+        
+        public int getTtlMinutes() {
+            return ttlMinutes;
+        }
+        
+        public void setTtlMinutes(int ttlMinutes) {
+            this.ttlMinutes = ttlMinutes;
+        }
+        
+        public boolean isPersistent() {
+            return persistent;
+        }
+        
+        public void setPersistent(boolean persistent) {
+            this.persistent = persistent;
+        }
+    }
+    
+    /**
+     * Failover across providers after the primary, with per-provider circuit breakers and hedging.
+     */
+    public static class Routing {
+        /**
+         * Providers tried in order when the primary fails or its circuit is open
+         */
+        private List<String> fallback = new ArrayList<>();
+        private int failureThreshold = 5;
+        private int openSeconds = 30;
+        private Hedging hedging = new Hedging();
+        
+        public List<String> getFallback() {
+            return fallback;
+        }
+        
+        public void setFallback(List<String> fallback) {
+            this.fallback = fallback;
+        }
+        
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+        
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+        
+        public int getOpenSeconds() {
+            return openSeconds;
+        }
+        
+        public void setOpenSeconds(int openSeconds) {
+            this.openSeconds = openSeconds;
+        }
+        
+        public Hedging getHedging() {
+            return hedging;
+        }
+        
+        public void setHedging(Hedging hedging) {
+            this.hedging = hedging;
+        }
+    }
+    
+    /**
+     * Fires the next provider when the first has not answered within its p95 latency.
+     */
+    public static class Hedging {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private int minSamples = 20;
+        private long initialDelayMs = 5000;
+        private long minDelayMs = 250;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public double getPercentile() {
+            return percentile;
+        }
+        
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+        
+        public int getMinSamples() {
+            return minSamples;
+        }
+        
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+        
+        public long getInitialDelayMs() {
+            return initialDelayMs;
+        }
+        
+        public void setInitialDelayMs(long initialDelayMs) {
+            this.initialDelayMs = initialDelayMs;
+        }
+        
+        public long getMinDelayMs() {
+            return minDelayMs;
+        }
+        
+        public void setMinDelayMs(long minDelayMs) {
+            this.minDelayMs = minDelayMs;
+        }
+    }
 }
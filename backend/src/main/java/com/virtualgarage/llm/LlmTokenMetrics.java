@@ -0,0 +1,52 @@
+package com.virtualgarage.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-call token counts reported by the LLM providers, as the {@code llm.tokens} summary
+ * tagged by provider, model and type (input, cache_read, cache_write, output).
+ */
+@Component
+public class LlmTokenMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public LlmTokenMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String provider, String model, long inputTokens, long cacheReadTokens,
+                       long cacheWriteTokens, long outputTokens) {
+        summary(provider, model, "input").record(inputTokens);
+        summary(provider, model, "cache_read").record(cacheReadTokens);
+        summary(provider, model, "cache_write").record(cacheWriteTokens);
+        summary(provider, model, "output").record(outputTokens);
+    }
+
+    /**
+     * Records an Anthropic {@code usage} object; input_tokens excludes cached prompt tokens.
+     */
+    public void recordAnthropicUsage(String provider, String model, JsonNode usage) {
+        if (usage == null || usage.isMissingNode() || usage.isNull()) {
+            return;
+        }
+        record(provider, model,
+                usage.path("input_tokens").asLong(0),
+                usage.path("cache_read_input_tokens").asLong(0),
+                usage.path("cache_creation_input_tokens").asLong(0),
+                usage.path("output_tokens").asLong(0));
+    }
+
+    private DistributionSummary summary(String provider, String model, String type) {
+        return DistributionSummary.builder("llm.tokens")
+                .baseUnit("tokens")
+                .tag("provider", provider)
+                .tag("model", model)
+                .tag("type", type)
+                .description("Tokens per LLM call")
+                .register(meterRegistry);
+    }
+}
@@ -4,19 +4,28 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Ollama LLM client implementation for local AI models.
  * Supports DeepSeek, Qwen, Llama, and other Ollama-compatible models.
+ * Calls go through an admission queue sized to what the local server can generate at once.
  */
 @Component
 public class OllamaLlmClient implements LlmClient {
@@ -27,10 +36,21 @@ public class OllamaLlmClient implements LlmClient {
     private final LlmProperties properties;
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
+    private final LlmTokenMetrics tokenMetrics;
+    private final LlmAdmissionQueue admission;
     
-    public OllamaLlmClient(LlmProperties properties, ObjectMapper objectMapper) {
+    // Optimistic until the first background check so startup does not block on Ollama
+    private volatile LlmHealth health = LlmHealth.unchecked(true, null);
+    
+    public OllamaLlmClient(LlmProperties properties, ObjectMapper objectMapper, LlmTokenMetrics tokenMetrics,
+                           MeterRegistry meterRegistry) {
         this.properties = properties;
         this.objectMapper = objectMapper;
+        this.tokenMetrics = tokenMetrics;
+        LlmProperties.Ollama config = properties.getOllama();
+        // Waiting longer than the request timeout would only time out inside Ollama instead
+        this.admission = new LlmAdmissionQueue(PROVIDER_NAME, config.getMaxConcurrent(), config.getMaxQueued(),
+                Duration.ofSeconds(config.getTimeoutSeconds()), meterRegistry);
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30))
                 .build();
@@ -44,32 +64,111 @@ public class OllamaLlmClient implements LlmClient {
             throw new LlmException(PROVIDER_NAME, "Ollama server not available at " + config.getBaseUrl(), 0);
         }
         
+        LlmAdmissionQueue.Permit permit = admission.admit(LlmPriority.current());
         try {
-            String requestBody = buildRequestBody(systemPrompt, userMessage, config);
+            HttpRequest request = buildRequest(systemPrompt, userMessage, config, false);
             
-            logger.debug("Sending request to Ollama API with model: {}", config.getModel());
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return handleResponse(response);
             
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(config.getBaseUrl() + "/api/chat"))
-                    .header("Content-Type", "application/json")
-                    .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .build();
+        } catch (LlmException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error calling Ollama API", e);
+            markUnreachable(e);
+            throw new LlmException(PROVIDER_NAME, "Failed to call API: " + e.getMessage(), e);
+        } finally {
+            permit.release();
+        }
+    }
+    
+    @Override
+    public CompletableFuture<String> chatAsync(String systemPrompt, String userMessage) {
+        LlmProperties.Ollama config = properties.getOllama();
+        
+        if (!isAvailable()) {
+            return CompletableFuture.failedFuture(new LlmException(PROVIDER_NAME, "Ollama server not available at " + config.getBaseUrl(), 0));
+        }
+        
+        HttpRequest request;
+        try {
+            request = buildRequest(systemPrompt, userMessage, config, false);
+        } catch (LlmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return admission.acquire(LlmPriority.current())
+                .thenCompose(permit -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> permit.release()))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return handleResponse(response);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof LlmOverloadedException overloaded) {
+                        throw overloaded;
+                    }
+                    logger.error("Error calling Ollama API", cause);
+                    markUnreachable(cause);
+                    throw new LlmException(PROVIDER_NAME, "Failed to call API: " + cause.getMessage(), cause);
+                });
+    }
+    
+    @Override
+    public String chatStream(String systemPrompt, String userMessage, Consumer<String> onText) {
+        LlmProperties.Ollama config = properties.getOllama();
+        
+        if (!isAvailable()) {
+            throw new LlmException(PROVIDER_NAME, "Ollama server not available at " + config.getBaseUrl(), 0);
+        }
+        
+        LlmAdmissionQueue.Permit permit = admission.admit(LlmPriority.current());
+        try {
+            HttpRequest request = buildRequest(systemPrompt, userMessage, config, true);
             
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
             
-            if (response.statusCode() != 200) {
-                logger.error("Ollama API error: status={}, body={}", response.statusCode(), response.body());
-                throw new LlmException(PROVIDER_NAME, "API request failed: " + response.body(), response.statusCode());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() != 200) {
+                    String body = lines.collect(Collectors.joining("\n"));
+                    logger.error("Ollama API error: status={}, body={}", response.statusCode(), body);
+                    throw new LlmException(PROVIDER_NAME, "API request failed: " + body, response.statusCode());
+                }
+                
+                // Each line is a JSON chunk carrying the next piece of message.content
+                StringBuilder content = new StringBuilder();
+                Iterator<String> chunks = lines.iterator();
+                while (chunks.hasNext()) {
+                    String line = chunks.next();
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JsonNode chunk = objectMapper.readTree(line);
+                    if (chunk.has("error")) {
+                        throw new LlmException(PROVIDER_NAME, "Stream failed: " + chunk.get("error").asText(), 0);
+                    }
+                    String text = chunk.path("message").path("content").asText("");
+                    if (!text.isEmpty()) {
+                        content.append(text);
+                        onText.accept(text);
+                    }
+                    if (chunk.path("done").asBoolean(false)) {
+                        recordUsage(chunk);
+                        break;
+                    }
+                }
+                return content.toString();
             }
             
-            return parseResponse(response.body());
-            
         } catch (LlmException e) {
             throw e;
         } catch (Exception e) {
-            logger.error("Error calling Ollama API", e);
+            logger.error("Error streaming from Ollama API", e);
+            markUnreachable(e);
             throw new LlmException(PROVIDER_NAME, "Failed to call API: " + e.getMessage(), e);
+        } finally {
+            permit.release();
         }
     }
     
@@ -78,9 +177,20 @@ public class OllamaLlmClient implements LlmClient {
         return PROVIDER_NAME;
     }
     
+    @Override
+    public String getModelName() {
+        return properties.getOllama().getModel();
+    }
+    
     @Override
     public boolean isAvailable() {
+        return health.available();
+    }
+    
+    @Override
+    public LlmHealth checkHealth() {
         LlmProperties.Ollama config = properties.getOllama();
+        long start = System.nanoTime();
         try {
             // Check if Ollama is running by hitting the /api/tags endpoint
             HttpRequest request = HttpRequest.newBuilder()
@@ -90,18 +200,61 @@ public class OllamaLlmClient implements LlmClient {
                     .build();
             
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200;
+            long latencyMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            health = response.statusCode() == 200
+                    ? LlmHealth.up(latencyMs)
+                    : LlmHealth.down("Health check returned status " + response.statusCode(), latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            health = LlmHealth.down("Health check interrupted", null);
         } catch (Exception e) {
-            logger.warn("Ollama server not available: {}", e.getMessage());
-            return false;
+            logger.debug("Ollama health check failed: {}", e.getMessage());
+            health = LlmHealth.down("Server not reachable at " + config.getBaseUrl() + ": " + e.getMessage(), null);
         }
+        return health;
+    }
+    
+    @Override
+    public LlmHealth getHealth() {
+        return health;
     }
     
-    private String buildRequestBody(String systemPrompt, String userMessage, LlmProperties.Ollama config) {
+    /**
+     * A refused connection means the server is down; stop sending requests until the next check says otherwise.
+     */
+    private void markUnreachable(Throwable error) {
+        if (error instanceof ConnectException) {
+            health = LlmHealth.down("Server not reachable at " + properties.getOllama().getBaseUrl(), null);
+        }
+    }
+    
+    private HttpRequest buildRequest(String systemPrompt, String userMessage,
+                                     LlmProperties.Ollama config, boolean stream) {
+        String requestBody = buildRequestBody(systemPrompt, userMessage, config, stream);
+        
+        logger.debug("Sending {}request to Ollama API with model: {}", stream ? "streaming " : "", config.getModel());
+        
+        return HttpRequest.newBuilder()
+                .uri(URI.create(config.getBaseUrl() + "/api/chat"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+    }
+    
+    private String handleResponse(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            logger.error("Ollama API error: status={}, body={}", response.statusCode(), response.body());
+            throw new LlmException(PROVIDER_NAME, "API request failed: " + response.body(), response.statusCode());
+        }
+        return parseResponse(response.body());
+    }
+    
+    private String buildRequestBody(String systemPrompt, String userMessage, LlmProperties.Ollama config, boolean stream) {
         try {
             ObjectNode root = objectMapper.createObjectNode();
             root.put("model", config.getModel());
-            root.put("stream", false);
+            root.put("stream", stream);
             
             // Build messages array for chat API
             ArrayNode messages = root.putArray("messages");
@@ -128,9 +281,20 @@ public class OllamaLlmClient implements LlmClient {
         }
     }
     
+    /**
+     * Ollama reports prompt and generated token counts on the final response; it has no prompt cache.
+     */
+    private void recordUsage(JsonNode response) {
+        if (response.has("prompt_eval_count") || response.has("eval_count")) {
+            tokenMetrics.record(PROVIDER_NAME, properties.getOllama().getModel(),
+                    response.path("prompt_eval_count").asLong(0), 0, 0, response.path("eval_count").asLong(0));
+        }
+    }
+    
     private String parseResponse(String responseBody) {
         try {
             JsonNode root = objectMapper.readTree(responseBody);
+            recordUsage(root);
             
             // Ollama chat API returns response in "message.content"
             JsonNode message = root.path("message");
@@ -0,0 +1,404 @@
+package com.virtualgarage.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * LLM client that tries providers in order, skipping any whose circuit is open.
+ * With hedging enabled, the next provider is also called when the first has not answered
+ * within its recent p95 latency, and whichever answers first wins.
+ * Reports itself as the primary provider so cache keys do not depend on which provider answered.
+ */
+public class RoutingLlmClient implements LlmClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingLlmClient.class);
+
+    private final List<Route> routes;
+    private final LlmProperties.Hedging hedging;
+    private final Counter failovers;
+    private final Counter hedges;
+
+    public RoutingLlmClient(List<LlmClient> clients, LlmProperties.Routing routing, MeterRegistry meterRegistry) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one LLM client is required");
+        }
+        this.hedging = routing.getHedging();
+        this.routes = clients.stream()
+                .map(client -> new Route(client,
+                        new CircuitBreaker(routing.getFailureThreshold(), Duration.ofSeconds(routing.getOpenSeconds())),
+                        meterRegistry))
+                .collect(Collectors.toList());
+        this.failovers = Counter.builder("llm.routing.failovers")
+                .description("LLM calls retried on the next provider after a failure")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("llm.routing.hedges")
+                .description("LLM calls also sent to a second provider because the first was slow")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        try {
+            return chatAsync(systemPrompt, userMessage).join();
+        } catch (CompletionException e) {
+            throw toLlmException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> chatAsync(String systemPrompt, String userMessage) {
+        List<Route> candidates = availableRoutes();
+        if (candidates.isEmpty()) {
+            return CompletableFuture.failedFuture(noProviderAvailable());
+        }
+        return new Attempt(candidates, systemPrompt, userMessage).start();
+    }
+
+    @Override
+    public String chatStream(String systemPrompt, String userMessage, Consumer<String> onText) {
+        // No hedging here: once text has reached the caller we cannot switch to another answer
+        AtomicBoolean emitted = new AtomicBoolean();
+        LlmException lastError = null;
+        for (Route route : availableRoutes()) {
+            if (!route.tryAcquire()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                String content = route.client.chatStream(systemPrompt, userMessage, text -> {
+                    emitted.set(true);
+                    onText.accept(text);
+                });
+                route.onSuccess(start);
+                return content;
+            } catch (LlmException e) {
+                route.onFailure(start, e);
+                if (emitted.get()) {
+                    throw e;
+                }
+                logger.warn("LLM provider {} failed before streaming any output: {}",
+                        route.client.getProviderName(), e.getMessage());
+                failovers.increment();
+                lastError = e;
+            }
+        }
+        throw lastError != null ? lastError : noProviderAvailable();
+    }
+
+    @Override
+    public String getProviderName() {
+        return routes.get(0).client.getProviderName();
+    }
+
+    @Override
+    public String getModelName() {
+        return routes.get(0).client.getModelName();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return routes.stream().anyMatch(route -> route.client.isAvailable());
+    }
+    
+    @Override
+    public LlmHealth checkHealth() {
+        routes.forEach(route -> route.client.checkHealth());
+        return getHealth();
+    }
+    
+    /**
+     * The primary's status, but available while any provider in the route is.
+     */
+    @Override
+    public LlmHealth getHealth() {
+        LlmHealth primary = routes.get(0).client.getHealth();
+        if (primary.available() || !isAvailable()) {
+            return primary;
+        }
+        return new LlmHealth(true, primary.latencyMs(), primary.error(), primary.checkedAt());
+    }
+
+    /**
+     * Circuit state per provider, in routing order.
+     */
+    public Map<String, CircuitBreaker.State> getCircuitStates() {
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        routes.forEach(route -> states.put(route.client.getProviderName(), route.breaker.getState()));
+        return states;
+    }
+
+    private List<Route> availableRoutes() {
+        return routes.stream()
+                .filter(route -> route.client.isAvailable())
+                .collect(Collectors.toList());
+    }
+
+    private LlmException noProviderAvailable() {
+        return new LlmException("No configured LLM client available. Check your API key configuration.");
+    }
+
+    private static LlmException toLlmException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof LlmException llmException) {
+            return llmException;
+        }
+        return new LlmException("LLM call failed: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * One chatAsync call working through its candidate providers.
+     */
+    private final class Attempt {
+
+        private final List<Route> candidates;
+        private final String systemPrompt;
+        private final String userMessage;
+        // Failover and hedged calls are sent from other threads
+        private final LlmPriority priority = LlmPriority.current();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private int next;
+        private int outstanding;
+        private Throwable lastError;
+
+        Attempt(List<Route> candidates, String systemPrompt, String userMessage) {
+            this.candidates = candidates;
+            this.systemPrompt = systemPrompt;
+            this.userMessage = userMessage;
+        }
+
+        CompletableFuture<String> start() {
+            Route first;
+            lock.lock();
+            try {
+                first = pickNext();
+            } finally {
+                lock.unlock();
+            }
+            if (first == null) {
+                result.completeExceptionally(new LlmException("All LLM providers have open circuits"));
+                return result;
+            }
+            if (hedging.isEnabled() && candidates.size() > 1) {
+                long delayMs = first.hedgeDelayMs(hedging);
+                CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(this::hedge);
+            }
+            send(first);
+            return result;
+        }
+
+        private void hedge() {
+            Route route;
+            lock.lock();
+            try {
+                // Only hedge a first call that is still running; failover already covers the rest
+                if (result.isDone() || next != 1 || outstanding != 1) {
+                    return;
+                }
+                route = pickNext();
+            } finally {
+                lock.unlock();
+            }
+            if (route != null) {
+                hedges.increment();
+                logger.debug("Hedging LLM call to provider {}", route.client.getProviderName());
+                send(route);
+            }
+        }
+
+        private void send(Route route) {
+            long start = System.nanoTime();
+            CompletableFuture<String> call;
+            try {
+                call = LlmPriority.callAs(priority, () -> route.client.chatAsync(systemPrompt, userMessage));
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((text, error) -> onComplete(route, start, text, error));
+        }
+
+        private void onComplete(Route route, long start, String text, Throwable error) {
+            if (error == null) {
+                route.onSuccess(start);
+                lock.lock();
+                try {
+                    outstanding--;
+                } finally {
+                    lock.unlock();
+                }
+                result.complete(text);
+                return;
+            }
+
+            route.onFailure(start, error);
+            Route nextRoute;
+            boolean exhausted = false;
+            lock.lock();
+            try {
+                outstanding--;
+                lastError = error;
+                if (result.isDone() || outstanding > 0) {
+                    // Answered already, or a hedged call is still running
+                    return;
+                }
+                nextRoute = pickNext();
+                exhausted = nextRoute == null;
+            } finally {
+                lock.unlock();
+            }
+
+            logger.warn("LLM provider {} failed: {}", route.client.getProviderName(), toLlmException(error).getMessage());
+            if (exhausted) {
+                result.completeExceptionally(toLlmException(lastError));
+            } else {
+                failovers.increment();
+                send(nextRoute);
+            }
+        }
+
+        /**
+         * Next candidate whose circuit lets a call through; caller holds the lock.
+         */
+        private Route pickNext() {
+            while (next < candidates.size()) {
+                Route candidate = candidates.get(next++);
+                if (candidate.tryAcquire()) {
+                    outstanding++;
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A provider with its circuit breaker, recent latencies and meters.
+     */
+    private static final class Route {
+
+        private final LlmClient client;
+        private final CircuitBreaker breaker;
+        private final LatencyWindow latencies = new LatencyWindow(200);
+        private final Timer successes;
+        private final Timer failures;
+        private final Counter rejected;
+
+        Route(LlmClient client, CircuitBreaker breaker, MeterRegistry meterRegistry) {
+            this.client = client;
+            this.breaker = breaker;
+            String provider = client.getProviderName();
+            this.successes = Timer.builder("llm.requests")
+                    .tag("provider", provider)
+                    .tag("outcome", "success")
+                    .description("LLM calls by provider and outcome")
+                    .register(meterRegistry);
+            this.failures = Timer.builder("llm.requests")
+                    .tag("provider", provider)
+                    .tag("outcome", "failure")
+                    .description("LLM calls by provider and outcome")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("llm.routing.rejected")
+                    .tag("provider", provider)
+                    .description("LLM calls skipped because the provider's circuit was open")
+                    .register(meterRegistry);
+            Gauge.builder("llm.circuit.open", breaker, b -> b.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                    .tag("provider", provider)
+                    .description("1 while the provider's circuit breaker is open or half-open")
+                    .register(meterRegistry);
+        }
+
+        boolean tryAcquire() {
+            if (breaker.tryAcquire()) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+
+        void onSuccess(long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            breaker.onSuccess();
+            latencies.record(elapsed);
+            successes.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        void onFailure(long startNanos, Throwable error) {
+            if (toLlmException(error) instanceof LlmOverloadedException) {
+                // Refused by the provider's queue before it was sent; not a sign the provider is down
+                breaker.onIgnored();
+                return;
+            }
+            breaker.onFailure();
+            failures.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        long hedgeDelayMs(LlmProperties.Hedging hedging) {
+            OptionalLong percentile = latencies.percentile(hedging.getPercentile(), hedging.getMinSamples());
+            if (percentile.isEmpty()) {
+                return hedging.getInitialDelayMs();
+            }
+            return Math.max(hedging.getMinDelayMs(), TimeUnit.NANOSECONDS.toMillis(percentile.getAsLong()));
+        }
+    }
+
+    /**
+     * Fixed-size ring of the most recent successful call durations.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int count;
+        private int position;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        void record(long nanos) {
+            lock.lock();
+            try {
+                samples[position] = nanos;
+                position = (position + 1) % samples.length;
+                count = Math.min(count + 1, samples.length);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        OptionalLong percentile(double percentile, int minSamples) {
+            long[] sorted;
+            lock.lock();
+            try {
+                if (count < Math.max(1, minSamples)) {
+                    return OptionalLong.empty();
+                }
+                sorted = Arrays.copyOf(samples, count);
+            } finally {
+                lock.unlock();
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return OptionalLong.of(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.virtualgarage.repository;
+
+import com.virtualgarage.entity.ImageBackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImageBackfillCheckpointRepository extends JpaRepository<ImageBackfillCheckpoint, String> {
+}
@@ -65,6 +65,24 @@ public interface InstructionalVideoRepository extends JpaRepository<Instructiona
             @Param("model") String model, 
             @Param("year") Integer year);
     
+    // Videos compatible with a vehicle, best vehicle match first; matched to part names in memory.
+    // Callers page it so a large catalogue isn't loaded on every search
+    @Query("SELECT v FROM InstructionalVideo v WHERE v.isActive = true AND " +
+           "(v.vehicleMake IS NULL OR LOWER(v.vehicleMake) = LOWER(:make)) AND " +
+           "(v.vehicleModel IS NULL OR LOWER(v.vehicleModel) = LOWER(:model)) AND " +
+           "(v.yearStart IS NULL OR v.yearStart <= :year) AND " +
+           "(v.yearEnd IS NULL OR v.yearEnd >= :year) " +
+           "ORDER BY " +
+           "CASE WHEN LOWER(v.vehicleMake) = LOWER(:make) AND LOWER(v.vehicleModel) = LOWER(:model) THEN 0 " +
+           "     WHEN LOWER(v.vehicleMake) = LOWER(:make) THEN 1 " +
+           "     ELSE 2 END, " +
+           "v.averageRating DESC, v.viewCount DESC")
+    List<InstructionalVideo> findVideosForVehicle(
+            @Param("make") String make,
+            @Param("model") String model,
+            @Param("year") Integer year,
+            Pageable pageable);
+    
     @Query("SELECT DISTINCT v.category FROM InstructionalVideo v WHERE v.isActive = true ORDER BY v.category")
     List<String> findAllCategories();
     
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -59,6 +60,10 @@ public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRe
     // Count maintenance records for vehicle
     long countByVehicleId(Long vehicleId);
     
+    // Count maintenance records for a batch of vehicles, one row per vehicle id
+    @Query("SELECT mr.vehicle.id, COUNT(mr) FROM MaintenanceRecord mr WHERE mr.vehicle.id IN :vehicleIds GROUP BY mr.vehicle.id")
+    List<Object[]> countByVehicleIds(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
     // Find maintenance records with warranty still valid
     @Query("SELECT mr FROM MaintenanceRecord mr WHERE mr.vehicle.id = :vehicleId AND mr.warrantyUntil IS NOT NULL AND mr.warrantyUntil >= :currentDate ORDER BY mr.warrantyUntil ASC")
     List<MaintenanceRecord> findActiveWarrantiesForVehicle(@Param("vehicleId") Long vehicleId, @Param("currentDate") LocalDateTime currentDate);
@@ -58,6 +58,22 @@ public interface PartSuggestionRepository extends JpaRepository<PartSuggestion,
             @Param("model") String model, 
             @Param("year") Integer year);
     
+    // Same as searchPartsForVehicle with author and videos loaded in the same query
+    @Query("SELECT DISTINCT p FROM PartSuggestion p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.videos " +
+           "WHERE p.isActive = true AND " +
+           "(LOWER(p.partName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(p.partCategory) LIKE LOWER(CONCAT('%', :query, '%'))) AND " +
+           "(p.vehicleMake IS NULL OR LOWER(p.vehicleMake) = LOWER(:make)) AND " +
+           "(p.vehicleModel IS NULL OR LOWER(p.vehicleModel) = LOWER(:model)) AND " +
+           "(p.yearStart IS NULL OR p.yearStart <= :year) AND " +
+           "(p.yearEnd IS NULL OR p.yearEnd >= :year) " +
+           "ORDER BY p.averageRating DESC, p.upvoteCount DESC")
+    List<PartSuggestion> searchPartsForVehicleWithVideos(
+            @Param("query") String query,
+            @Param("make") String make,
+            @Param("model") String model,
+            @Param("year") Integer year);
+    
     @Query("SELECT DISTINCT p.partCategory FROM PartSuggestion p WHERE p.isActive = true ORDER BY p.partCategory")
     List<String> findAllCategories();
     
@@ -0,0 +1,22 @@
+package com.virtualgarage.repository;
+
+import com.virtualgarage.entity.PartsSearchHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PartsSearchHistoryRepository extends JpaRepository<PartsSearchHistory, Long> {
+    
+    // Most searched (vehicle signature, query) pairs since a point in time, with a vehicle and
+    // query text to replay each one: [signature, make, vehicleId, query, searchCount]
+    @Query("SELECT h.vehicleSignature, MAX(h.vehicleMake), MAX(h.vehicleId), MAX(h.query), COUNT(h) " +
+           "FROM PartsSearchHistory h WHERE h.createdAt >= :since AND h.vehicleId IS NOT NULL " +
+           "GROUP BY h.vehicleSignature, h.normalizedQuery ORDER BY COUNT(h) DESC")
+    List<Object[]> findTopSearches(@Param("since") LocalDateTime since, Pageable pageable);
+}
@@ -0,0 +1,47 @@
+package com.virtualgarage.repository;
+
+import com.virtualgarage.entity.PartsSearchQueryStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PartsSearchQueryStatsRepository extends JpaRepository<PartsSearchQueryStats, String> {
+    
+    // Add searches to an existing row in place, so concurrent writers do not lose counts
+    @Modifying
+    @Query("UPDATE PartsSearchQueryStats s SET s.searchCount = s.searchCount + :count, " +
+           "s.lastSuggestions = :suggestions, s.lastSearchedAt = :searchedAt WHERE s.statsKey = :statsKey")
+    int addSearches(@Param("statsKey") String statsKey,
+                    @Param("count") long count,
+                    @Param("suggestions") String suggestions,
+                    @Param("searchedAt") LocalDateTime searchedAt);
+    
+    // Insert or add to a row in one statement (PostgreSQL), so writers on several instances never clash on the key
+    @Modifying
+    @Query(value = "INSERT INTO parts_search_query_stats (stats_key, vehicle_make, vehicle_model, normalized_query, " +
+           "search_count, last_suggestions, last_searched_at) " +
+           "VALUES (:statsKey, :make, :model, :normalizedQuery, :count, :suggestions, :searchedAt) " +
+           "ON CONFLICT (stats_key) DO UPDATE SET " +
+           "search_count = parts_search_query_stats.search_count + EXCLUDED.search_count, " +
+           "last_suggestions = EXCLUDED.last_suggestions, last_searched_at = EXCLUDED.last_searched_at",
+           nativeQuery = true)
+    void upsertSearches(@Param("statsKey") String statsKey,
+                        @Param("make") String make,
+                        @Param("model") String model,
+                        @Param("normalizedQuery") String normalizedQuery,
+                        @Param("count") long count,
+                        @Param("suggestions") String suggestions,
+                        @Param("searchedAt") LocalDateTime searchedAt);
+    
+    // Most searched queries for a make/model (stored lower-cased)
+    List<PartsSearchQueryStats> findByVehicleMakeAndVehicleModelOrderBySearchCountDesc(String vehicleMake,
+                                                                                       String vehicleModel,
+                                                                                       Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.virtualgarage.repository;
+
+import com.virtualgarage.entity.VehicleImageCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface VehicleImageCacheRepository extends JpaRepository<VehicleImageCacheEntry, String> {
+    
+    // Find an entry that has not expired yet
+    Optional<VehicleImageCacheEntry> findByCacheKeyAndExpiresAtAfter(String cacheKey, LocalDateTime now);
+    
+    // Remove expired entries
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VehicleImageCacheEntry e WHERE e.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,10 @@ public interface VehicleImageRepository extends JpaRepository<VehicleImage, Long
     // Count images for a vehicle
     long countByVehicleId(Long vehicleId);
     
+    // Count images for a batch of vehicles, one row per vehicle id
+    @Query("SELECT vi.vehicle.id, COUNT(vi) FROM VehicleImage vi WHERE vi.vehicle.id IN :vehicleIds GROUP BY vi.vehicle.id")
+    List<Object[]> countByVehicleIds(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
     // Update primary image - set all other images for this vehicle to not primary
     @Modifying
     @Query("UPDATE VehicleImage vi SET vi.isPrimary = false WHERE vi.vehicle.id = :vehicleId AND vi.id != :imageId")
@@ -1,17 +1,26 @@
 package com.virtualgarage.repository;
 
 import com.virtualgarage.entity.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
@@ -31,6 +40,26 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
            "LOWER(v.type) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     Page<Vehicle> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    // Relevance-ranked search (PostgreSQL only, requires pg_trgm from V004)
+    @Query(value = "SELECT v.* FROM vehicles v WHERE v.is_active = true AND " +
+           "(LOWER(v.name) LIKE CONCAT('%', LOWER(:searchTerm), '%') OR " +
+           "LOWER(v.make) LIKE CONCAT('%', LOWER(:searchTerm), '%') OR " +
+           "LOWER(v.model) LIKE CONCAT('%', LOWER(:searchTerm), '%') OR " +
+           "LOWER(v.type) LIKE CONCAT('%', LOWER(:searchTerm), '%')) " +
+           "ORDER BY GREATEST(" +
+           "similarity(LOWER(v.name), LOWER(:searchTerm)), " +
+           "similarity(LOWER(v.make), LOWER(:searchTerm)), " +
+           "similarity(LOWER(v.model), LOWER(:searchTerm)), " +
+           "similarity(LOWER(v.type), LOWER(:searchTerm))) DESC, " +
+           "v.created_at DESC, v.id DESC",
+           countQuery = "SELECT COUNT(*) FROM vehicles v WHERE v.is_active = true AND " +
+           "(LOWER(v.name) LIKE CONCAT('%', LOWER(:searchTerm), '%') OR " +
+           "LOWER(v.make) LIKE CONCAT('%', LOWER(:searchTerm), '%') OR " +
+           "LOWER(v.model) LIKE CONCAT('%', LOWER(:searchTerm), '%') OR " +
+           "LOWER(v.type) LIKE CONCAT('%', LOWER(:searchTerm), '%'))",
+           nativeQuery = true)
+    Page<Vehicle> findBySearchTermRanked(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
     // Filter by type
     Page<Vehicle> findByTypeIgnoreCaseAndIsActiveTrue(String type, Pageable pageable);
     
@@ -69,6 +98,59 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
                                   @Param("maxValue") BigDecimal maxValue,
                                   Pageable pageable);
     
+    // Keyset pagination ordered by (createdAt DESC, id DESC); no count query is issued for a Slice
+    @Query("SELECT v FROM Vehicle v WHERE v.isActive = true AND " +
+           "(v.createdAt < :cursorCreatedAt OR (v.createdAt = :cursorCreatedAt AND v.id < :cursorId)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    Slice<Vehicle> findActiveAfterCursor(@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+    
+    @Query("SELECT v FROM Vehicle v WHERE v.isActive = true AND " +
+           "(LOWER(v.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(v.make) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(v.model) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(v.type) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "(v.createdAt < :cursorCreatedAt OR (v.createdAt = :cursorCreatedAt AND v.id < :cursorId)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    Slice<Vehicle> findBySearchTermAfterCursor(@Param("searchTerm") String searchTerm,
+                                               @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+    
+    @Query("SELECT v FROM Vehicle v WHERE v.isActive = true AND " +
+           "(:searchTerm IS NULL OR " +
+           "LOWER(v.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(v.make) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(v.model) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(v.type) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "(:type IS NULL OR LOWER(v.type) = LOWER(:type)) AND " +
+           "(:make IS NULL OR LOWER(v.make) = LOWER(:make)) AND " +
+           "(:startYear IS NULL OR v.year >= :startYear) AND " +
+           "(:endYear IS NULL OR v.year <= :endYear) AND " +
+           "(:minValue IS NULL OR v.value >= :minValue) AND " +
+           "(:maxValue IS NULL OR v.value <= :maxValue) AND " +
+           "(v.createdAt < :cursorCreatedAt OR (v.createdAt = :cursorCreatedAt AND v.id < :cursorId)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    Slice<Vehicle> findWithFiltersAfterCursor(@Param("searchTerm") String searchTerm,
+                                              @Param("type") String type,
+                                              @Param("make") String make,
+                                              @Param("startYear") Integer startYear,
+                                              @Param("endYear") Integer endYear,
+                                              @Param("minValue") BigDecimal minValue,
+                                              @Param("maxValue") BigDecimal maxValue,
+                                              @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+    
+    // Streaming read for bulk export; rows are pulled from a JDBC cursor in fetch-size batches
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Vehicle v WHERE v.isActive = true ORDER BY v.id")
+    Stream<Vehicle> streamActiveVehicles();
+    
     // Statistics queries
     @Query("SELECT COUNT(v) FROM Vehicle v WHERE v.isActive = true")
     long countActiveVehicles();
@@ -102,6 +184,45 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     
     boolean existsByVinNumber(String vinNumber);
     
+    // Bulk VIN check for imports
+    @Query("SELECT v.vinNumber FROM Vehicle v WHERE v.vinNumber IN :vinNumbers")
+    List<String> findExistingVinNumbers(@Param("vinNumbers") Collection<String> vinNumbers);
+    
+    // Record an enrichment result; a user-provided image set in the meantime is kept.
+    // Bumps the version so an update holding the vehicle from before fails instead of overwriting it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Vehicle v SET v.primaryImageUrl = COALESCE(v.primaryImageUrl, :imageUrl), " +
+           "v.imageEnrichmentStatus = :status, v.version = v.version + 1, v.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE v.id = :id")
+    int completeImageEnrichment(@Param("id") Long id,
+                                @Param("imageUrl") String imageUrl,
+                                @Param("status") Vehicle.ImageEnrichmentStatus status);
+    
+    // Image backfill candidates after a keyset position: id, make, model, year, primaryImageUrl
+    @Query("SELECT v.id, v.make, v.model, v.year, v.primaryImageUrl FROM Vehicle v " +
+           "WHERE v.isActive = true AND v.id > :afterId " +
+           "AND (v.primaryImageUrl IS NULL OR v.primaryImageUrl IN :fallbackUrls) ORDER BY v.id ASC")
+    List<Object[]> findImageBackfillCandidates(@Param("afterId") Long afterId,
+                                               @Param("fallbackUrls") Collection<String> fallbackUrls,
+                                               Pageable pageable);
+    
+    @Query("SELECT COUNT(v) FROM Vehicle v WHERE v.isActive = true AND v.id > :afterId " +
+           "AND (v.primaryImageUrl IS NULL OR v.primaryImageUrl IN :fallbackUrls)")
+    long countImageBackfillCandidates(@Param("afterId") Long afterId,
+                                      @Param("fallbackUrls") Collection<String> fallbackUrls);
+    
+    // Replace a missing or fallback image; images set by users in the meantime are kept
+    @Modifying
+    @Transactional
+    @Query("UPDATE Vehicle v SET v.primaryImageUrl = :imageUrl, v.imageEnrichmentStatus = :status, " +
+           "v.version = v.version + 1, v.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE v.id = :id AND (v.primaryImageUrl IS NULL OR v.primaryImageUrl IN :fallbackUrls)")
+    int replaceFallbackImage(@Param("id") Long id,
+                             @Param("imageUrl") String imageUrl,
+                             @Param("status") Vehicle.ImageEnrichmentStatus status,
+                             @Param("fallbackUrls") Collection<String> fallbackUrls);
+    
     // High-value vehicles
     @Query("SELECT v FROM Vehicle v WHERE v.isActive = true AND v.value > :threshold ORDER BY v.value DESC")
     Page<Vehicle> findHighValueVehicles(@Param("threshold") BigDecimal threshold, Pageable pageable);
@@ -113,5 +234,5 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
            "COALESCE(AVG(v.value), 0) as averageValue, " +
            "COUNT(CASE WHEN v.createdAt >= :monthAgo THEN 1 END) as newThisMonth" +
            ") FROM Vehicle v WHERE v.isActive = true")
-    List<Object> getDashboardStats(@Param("monthAgo") LocalDateTime monthAgo);
+    List<Map<String, Object>> getDashboardStats(@Param("monthAgo") LocalDateTime monthAgo);
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.virtualgarage.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Starts asynchronous tasks with at most {@code limit} of them running at once;
+ * the rest wait in submission order. No thread is blocked while waiting.
+ */
+class AsyncLimiter {
+
+    private final int limit;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int running;
+
+    AsyncLimiter(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.limit = limit;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> future;
+            try {
+                future = task.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                release();
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+        };
+
+        boolean startNow;
+        lock.lock();
+        try {
+            startNow = running < limit;
+            if (startNow) {
+                running++;
+            } else {
+                waiting.add(start);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    private void release() {
+        Runnable next;
+        lock.lock();
+        try {
+            next = waiting.poll();
+            if (next == null) {
+                running--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+}
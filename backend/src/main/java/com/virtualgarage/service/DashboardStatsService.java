@@ -0,0 +1,117 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.event.VehicleChangeEvent;
+import com.virtualgarage.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves dashboard statistics from an in-memory snapshot.
+ * The snapshot is computed with a single aggregate query, refreshed on a fixed
+ * schedule, and marked stale after any committed vehicle write.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    private final VehicleRepository vehicleRepository;
+    private final AtomicReference<Map<String, Object>> snapshot = new AtomicReference<>();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public DashboardStatsService(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    /**
+     * Returns the current snapshot, recomputing it only if a vehicle write
+     * has been committed since it was taken.
+     */
+    public Map<String, Object> getDashboardStats() {
+        Map<String, Object> current = snapshot.get();
+        if (current != null && !stale.get()) {
+            return current;
+        }
+        
+        // Another request is already refreshing; serve the previous snapshot meanwhile
+        if (current != null && refreshLock.isLocked()) {
+            return current;
+        }
+        return refresh(false);
+    }
+
+    /**
+     * Recomputes even without writes, so time-based figures such as new_this_month move on.
+     */
+    @Scheduled(fixedDelayString = "${virtual-garage.stats.dashboard-refresh-interval:60000}")
+    public void scheduledRefresh() {
+        refresh(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVehicleChange(VehicleChangeEvent event) {
+        logger.debug("Dashboard statistics marked stale by {}", event);
+        stale.set(true);
+    }
+
+    private Map<String, Object> refresh(boolean force) {
+        refreshLock.lock();
+        try {
+            // A request that waited on the lock can use the snapshot just taken
+            Map<String, Object> current = snapshot.get();
+            if (!force && current != null && !stale.get()) {
+                return current;
+            }
+            
+            // Clear the flag first so writes committed during the query mark it stale again
+            stale.set(false);
+            Map<String, Object> computed = computeStats();
+            snapshot.set(computed);
+            return computed;
+        } catch (RuntimeException e) {
+            stale.set(true);
+            throw e;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Map<String, Object> computeStats() {
+        logger.debug("Refreshing dashboard statistics snapshot");
+        
+        LocalDateTime monthAgo = LocalDateTime.now().minusMonths(1);
+        List<Map<String, Object>> rows = vehicleRepository.getDashboardStats(monthAgo);
+        Map<String, Object> row = rows.isEmpty() ? Map.of() : rows.get(0);
+        
+        return Map.of(
+            "total_vehicles", toLong(row.get("totalVehicles")),
+            "total_value", toBigDecimal(row.get("totalValue")),
+            "average_value", toBigDecimal(row.get("averageValue")),
+            "new_this_month", toLong(row.get("newThisMonth"))
+        );
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value instanceof Number number ? BigDecimal.valueOf(number.doubleValue()) : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,77 @@
+package com.virtualgarage.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+import com.virtualgarage.llm.LlmProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-process LRU cache of parts suggestions with a fixed time to live.
+ * Used on its own unless {@code llm.cache.persistent} is enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "llm.cache.persistent", havingValue = "false", matchIfMissing = true)
+public class InMemoryPartsSuggestionCache implements PartsSuggestionCache {
+    
+    private record Entry(List<PartSuggestion> suggestions, long ttlNanos) {
+    }
+    
+    private final Cache<String, Entry> cache;
+    private final Duration ttl;
+    
+    public InMemoryPartsSuggestionCache(LlmProperties properties) {
+        LlmProperties.Cache config = properties.getCache();
+        this.ttl = Duration.ofMinutes(config.getTtlMinutes());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
+    @Override
+    public Optional<List<PartSuggestion>> get(String key) {
+        Entry cached = cache.getIfPresent(key);
+        return cached != null
+                ? Optional.of(new ArrayList<>(PartsSuggestionCache.copyOf(cached.suggestions())))
+                : Optional.empty();
+    }
+    
+    @Override
+    public void put(String key, List<PartSuggestion> suggestions) {
+        put(key, suggestions, ttl);
+    }
+    
+    /**
+     * Stores an entry that expires after {@code timeToLive} instead of the configured TTL,
+     * for entries that have already spent part of their lifetime elsewhere.
+     */
+    void put(String key, List<PartSuggestion> suggestions, Duration timeToLive) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            return;
+        }
+        cache.put(key, new Entry(PartsSuggestionCache.copyOf(suggestions), (timeToLive.compareTo(ttl) < 0 ? timeToLive : ttl).toNanos()));
+    }
+}
@@ -0,0 +1,176 @@
+package com.virtualgarage.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pulls part suggestions out of complete model output with a streaming {@link JsonParser}.
+ * Reasoning in {@code <think>} blocks and any prose or markdown fence before the JSON are skipped,
+ * the parser reads directly from the response text without copying it, and every complete
+ * suggestion is kept when the output was cut off (for example at max_tokens).
+ */
+class PartSuggestionExtractor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PartSuggestionExtractor.class);
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+    
+    /**
+     * Suggestions found, and whether the array was closed.
+     */
+    record Extraction(List<PartSuggestion> suggestions, boolean complete) {
+    }
+    
+    private final ObjectMapper objectMapper;
+    
+    PartSuggestionExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Reads the first JSON array of objects in the text. A closed empty array ("no compatible
+     * parts") is an answer with no suggestions; an array whose objects are all unmappable is not.
+     *
+     * @return Empty if the text holds neither an array with a usable suggestion nor an empty array
+     */
+    Optional<Extraction> extract(String text) {
+        int from = answerStart(text);
+        boolean emptyArray = false;
+        for (int start = findContainer(text, from, '['); start >= 0; start = findContainer(text, start + 1, '[')) {
+            List<PartSuggestion> suggestions = new ArrayList<>();
+            int elements;
+            try (JsonParser parser = parserAt(text, start)) {
+                parser.nextToken();
+                elements = readArray(parser, suggestions);
+            } catch (IOException e) {
+                logger.debug("LLM output ended inside the suggestion array: {}", e.getMessage());
+                elements = -1;
+            }
+            if (!suggestions.isEmpty()) {
+                return Optional.of(new Extraction(suggestions, elements >= 0));
+            }
+            // Keep looking in case a later array has suggestions
+            emptyArray |= elements == 0;
+        }
+        return emptyArray ? Optional.of(new Extraction(new ArrayList<>(), true)) : Optional.empty();
+    }
+    
+    /**
+     * Reads the first JSON object whose values are suggestion arrays, as used by batched searches.
+     * Only arrays that were closed are returned, so a key cut off mid-array is left out.
+     *
+     * @return Empty if no such object with at least one complete array was found
+     */
+    Optional<Map<String, List<PartSuggestion>>> extractKeyed(String text) {
+        int from = answerStart(text);
+        for (int start = findContainer(text, from, '{'); start >= 0; start = findContainer(text, start + 1, '{')) {
+            Map<String, List<PartSuggestion>> arrays = new LinkedHashMap<>();
+            try (JsonParser parser = parserAt(text, start)) {
+                parser.nextToken();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String key = parser.currentName();
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    List<PartSuggestion> suggestions = new ArrayList<>();
+                    if (readArray(parser, suggestions) < 0) {
+                        break;
+                    }
+                    arrays.put(key, suggestions);
+                }
+            } catch (IOException e) {
+                logger.debug("LLM output ended inside the batched answer: {}", e.getMessage());
+            }
+            if (!arrays.isEmpty()) {
+                return Optional.of(arrays);
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Reads the objects of the array the parser is positioned on.
+     * Objects that do not map to a suggestion are skipped.
+     *
+     * @return Number of elements in the array, or -1 if the closing bracket was not reached
+     */
+    private int readArray(JsonParser parser, List<PartSuggestion> into) throws IOException {
+        int elements = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                return -1;
+            }
+            elements++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            // Read the object as a tree first so a bad field only loses this suggestion
+            JsonNode node = objectMapper.readTree(parser);
+            try {
+                into.add(objectMapper.treeToValue(node, PartSuggestion.class));
+            } catch (JsonProcessingException e) {
+                logger.debug("Skipping unmappable suggestion: {}", e.getMessage());
+            }
+        }
+        return elements;
+    }
+    
+    private JsonParser parserAt(String text, int offset) throws IOException {
+        Reader reader = new StringReader(text);
+        reader.skip(offset);
+        return objectMapper.getFactory().createParser(reader);
+    }
+    
+    /**
+     * Where the answer starts: after the last reasoning block, or -1 when the output
+     * ended while the model was still reasoning.
+     */
+    private static int answerStart(String text) {
+        int thinkEnd = text.lastIndexOf(THINK_CLOSE);
+        if (thinkEnd >= 0) {
+            return thinkEnd + THINK_CLOSE.length();
+        }
+        return text.contains(THINK_OPEN) ? -1 : 0;
+    }
+    
+    /**
+     * Next opening bracket or brace that looks like the start of JSON rather than prose,
+     * e.g. "[{" or "[]" for arrays and "{\"" for objects.
+     */
+    private static int findContainer(String text, int from, char open) {
+        if (from < 0) {
+            return -1;
+        }
+        for (int i = text.indexOf(open, from); i >= 0; i = text.indexOf(open, i + 1)) {
+            int next = i + 1;
+            while (next < text.length() && Character.isWhitespace(text.charAt(next))) {
+                next++;
+            }
+            if (next < text.length()) {
+                char c = text.charAt(next);
+                if (open == '[' ? (c == '{' || c == ']') : (c == '"' || c == '}')) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.virtualgarage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for a JSON array of part suggestions arriving in arbitrary chunks.
+ * Text before the opening bracket (such as a markdown fence or a {@code <think>} block) is skipped,
+ * and each top-level object is handed to the listener as soon as its closing brace arrives.
+ */
+class PartSuggestionStreamParser {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PartSuggestionStreamParser.class);
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+    
+    private final ObjectMapper objectMapper;
+    private final Consumer<PartSuggestion> onSuggestion;
+    private final StringBuilder current = new StringBuilder();
+    
+    private boolean inArray;
+    private boolean thinking;
+    private int tagMatched;
+    private boolean complete;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    
+    PartSuggestionStreamParser(ObjectMapper objectMapper, Consumer<PartSuggestion> onSuggestion) {
+        this.objectMapper = objectMapper;
+        this.onSuggestion = onSuggestion;
+    }
+    
+    /**
+     * Feeds the next piece of model output.
+     */
+    void feed(String text) {
+        for (int i = 0; i < text.length() && !complete; i++) {
+            accept(text.charAt(i));
+        }
+    }
+    
+    /**
+     * Whether the closing bracket of the array has been seen.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+    
+    private void accept(char c) {
+        if (!inArray) {
+            // Brackets inside the model's reasoning are not the answer
+            String tag = thinking ? THINK_CLOSE : THINK_OPEN;
+            tagMatched = c == tag.charAt(tagMatched) ? tagMatched + 1 : (c == tag.charAt(0) ? 1 : 0);
+            if (tagMatched == tag.length()) {
+                thinking = !thinking;
+                tagMatched = 0;
+            } else if (!thinking) {
+                inArray = c == '[';
+            }
+            return;
+        }
+        
+        // Between objects: wait for the next one or the end of the array
+        if (depth == 0) {
+            if (c == '{') {
+                current.setLength(0);
+                current.append(c);
+                depth = 1;
+            } else if (c == ']') {
+                complete = true;
+            }
+            return;
+        }
+        
+        current.append(c);
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+        } else if (c == '"') {
+            inString = true;
+        } else if (c == '{' || c == '[') {
+            depth++;
+        } else if (c == '}' || c == ']') {
+            depth--;
+            if (depth == 0) {
+                emit(current.toString());
+            }
+        }
+    }
+    
+    private void emit(String json) {
+        PartSuggestion suggestion;
+        try {
+            suggestion = objectMapper.readValue(json, PartSuggestion.class);
+        } catch (Exception e) {
+            logger.debug("Skipping unparseable streamed suggestion: {}", e.getMessage());
+            return;
+        }
+        onSuggestion.accept(suggestion);
+    }
+}
@@ -0,0 +1,212 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.config.TaskExecutors;
+import com.virtualgarage.dto.PartsSearchRequest;
+import com.virtualgarage.entity.Vehicle;
+import com.virtualgarage.llm.LlmClient;
+import com.virtualgarage.llm.LlmClientFactory;
+import com.virtualgarage.llm.LlmPriority;
+import com.virtualgarage.llm.LlmProperties;
+import com.virtualgarage.repository.PartsSearchHistoryRepository;
+import com.virtualgarage.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the parts suggestion cache ahead of peak traffic. The most searched (vehicle signature, query)
+ * pairs from recent search history are replayed through {@link PartsSearchService}, ties broken by how
+ * many vehicles of that make are in the garage. Searches run with bounded concurrency and the number of
+ * LLM calls per run is capped; pairs that are already cached cost nothing.
+ */
+@Service
+public class PartsCacheWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartsCacheWarmupService.class);
+
+    private enum Outcome { LLM_CALL, CACHED, OVER_BUDGET, FAILED }
+
+    private record Candidate(String signature, String make, Long vehicleId, String query, long searches) {
+    }
+
+    private final PartsSearchService partsSearchService;
+    private final PartsSearchHistoryRepository historyRepository;
+    private final VehicleRepository vehicleRepository;
+    private final LlmClientFactory llmClientFactory;
+    private final LlmProperties llmProperties;
+    private final ExecutorService coordinator;
+    private final int topPairs;
+    private final int lookbackDays;
+    private final int concurrency;
+    private final int maxLlmCalls;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    public PartsCacheWarmupService(PartsSearchService partsSearchService,
+                                   PartsSearchHistoryRepository historyRepository,
+                                   VehicleRepository vehicleRepository,
+                                   LlmClientFactory llmClientFactory,
+                                   LlmProperties llmProperties,
+                                   MeterRegistry meterRegistry,
+                                   TaskExecutors taskExecutors,
+                                   @Value("${virtual-garage.parts-search.warmup.top-pairs:200}") int topPairs,
+                                   @Value("${virtual-garage.parts-search.warmup.lookback-days:7}") int lookbackDays,
+                                   @Value("${virtual-garage.parts-search.warmup.concurrency:2}") int concurrency,
+                                   @Value("${virtual-garage.parts-search.warmup.max-llm-calls:100}") int maxLlmCalls) {
+        this.partsSearchService = partsSearchService;
+        this.historyRepository = historyRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.llmClientFactory = llmClientFactory;
+        this.llmProperties = llmProperties;
+        this.coordinator = Executors.newSingleThreadExecutor(taskExecutors.threadFactory("parts-warmup-"));
+        this.topPairs = topPairs;
+        this.lookbackDays = lookbackDays;
+        this.concurrency = concurrency;
+        this.maxLlmCalls = maxLlmCalls;
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("parts.search.warmup")
+                    .tag("result", outcome.name().toLowerCase(Locale.ROOT))
+                    .description("Popular parts searches replayed by the cache warm-up job")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Starts a warm-up run in the background. Returns false if one is already in progress.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        coordinator.execute(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Parts cache warm-up failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(cron = "${virtual-garage.parts-search.warmup.cron:-}")
+    public void scheduledStart() {
+        if (start()) {
+            logger.info("Started scheduled parts cache warm-up");
+        }
+    }
+
+    private void run() {
+        if (!llmProperties.getCache().isEnabled()) {
+            logger.info("Parts suggestion cache is disabled; skipping warm-up");
+            return;
+        }
+        LlmClient client = llmClientFactory.getClient();
+        if (!client.isAvailable()) {
+            logger.warn("LLM provider {} is not available; skipping parts cache warm-up", client.getProviderName());
+            return;
+        }
+
+        List<Candidate> candidates = selectCandidates();
+        Map<Long, Vehicle> vehicles = vehicleRepository.findAllById(
+                        candidates.stream().map(Candidate::vehicleId).distinct().toList())
+                .stream()
+                .filter(vehicle -> Boolean.TRUE.equals(vehicle.getIsActive()))
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+
+        // The budget is taken before each LLM call; cached pairs are still checked once it runs out
+        AtomicInteger budget = new AtomicInteger(maxLlmCalls);
+        AsyncLimiter limiter = new AsyncLimiter(concurrency);
+        List<CompletableFuture<Outcome>> warmed = new ArrayList<>();
+
+        for (Candidate candidate : candidates) {
+            Vehicle vehicle = vehicles.get(candidate.vehicleId());
+            if (vehicle == null) {
+                continue;
+            }
+            PartsSearchRequest request = new PartsSearchRequest();
+            request.setVehicleId(vehicle.getId());
+            request.setQuery(candidate.query());
+
+            AtomicBoolean refused = new AtomicBoolean();
+            // Queued behind interactive searches when the provider limits concurrent calls
+            warmed.add(limiter.submit(() -> LlmPriority.callAs(LlmPriority.BACKGROUND,
+                            () -> partsSearchService.warmSuggestionsAsync(vehicle, request, () -> {
+                                boolean allowed = budget.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0;
+                                refused.set(!allowed);
+                                return allowed;
+                            })))
+                    .handle((called, error) -> {
+                        Outcome outcome;
+                        if (error != null) {
+                            logger.debug("Warm-up search failed for vehicle {}: {}", vehicle.getId(), error.getMessage());
+                            outcome = Outcome.FAILED;
+                        } else if (called) {
+                            outcome = Outcome.LLM_CALL;
+                        } else {
+                            outcome = refused.get() ? Outcome.OVER_BUDGET : Outcome.CACHED;
+                        }
+                        outcomes.get(outcome).increment();
+                        return outcome;
+                    }));
+        }
+
+        CompletableFuture.allOf(warmed.toArray(CompletableFuture[]::new)).join();
+
+        Map<Outcome, Long> counts = warmed.stream()
+                .collect(Collectors.groupingBy(CompletableFuture::join, () -> new EnumMap<>(Outcome.class), Collectors.counting()));
+        logger.info("Parts cache warm-up finished: {} searches, {}", warmed.size(), counts);
+    }
+
+    /**
+     * Top searched pairs in the lookback window; among equally searched pairs, makes with more
+     * vehicles in the garage go first.
+     */
+    private List<Candidate> selectCandidates() {
+        Map<String, Long> vehiclesByMake = new HashMap<>();
+        for (Object[] row : vehicleRepository.getVehicleCountByMake()) {
+            if (row[0] != null) {
+                vehiclesByMake.merge(((String) row[0]).toLowerCase(Locale.ROOT), (Long) row[1], Long::sum);
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Object[] row : historyRepository.findTopSearches(LocalDateTime.now().minusDays(lookbackDays),
+                PageRequest.of(0, topPairs))) {
+            candidates.add(new Candidate((String) row[0], (String) row[1], (Long) row[2], (String) row[3], (Long) row[4]));
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::searches).reversed()
+                .thenComparing(candidate -> vehiclesByMake.getOrDefault(
+                        candidate.make().toLowerCase(Locale.ROOT), 0L), Comparator.reverseOrder()));
+        return candidates;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+}
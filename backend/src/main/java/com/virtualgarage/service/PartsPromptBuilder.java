@@ -0,0 +1,138 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.dto.PartsSearchRequest;
+import com.virtualgarage.entity.Vehicle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the parts search user message within a token budget.
+ * The vehicle line and instructions are always kept; the search query comes next and is
+ * truncated if needed, and optional vehicle details are added only while they still fit.
+ * Tokens are estimated at four characters each, which is close enough for English prompts.
+ */
+@Component
+public class PartsPromptBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartsPromptBuilder.class);
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int MAX_DETAIL_CHARS = 120;
+    private static final int MIN_QUERY_CHARS = 200;
+
+    private final int maxTokens;
+    private final Counter trimmedPrompts;
+
+    public PartsPromptBuilder(@Value("${llm.prompt.max-user-tokens:400}") int maxTokens,
+                              MeterRegistry meterRegistry) {
+        this.maxTokens = maxTokens;
+        this.trimmedPrompts = Counter.builder("parts.search.prompt.trimmed")
+                .description("Parts search prompts shortened to fit the token budget")
+                .register(meterRegistry);
+    }
+
+    public String build(Vehicle vehicle, PartsSearchRequest request) {
+        String vehicleLine = "Vehicle: " + vehicle.getYear() + " " + compact(vehicle.getMake()) + " " + compact(vehicle.getModel());
+
+        StringBuilder instructions = new StringBuilder();
+        instructions.append("\n\nPlease suggest up to ").append(request.getMaxResults()).append(" relevant parts.");
+        if (request.isIncludePricing()) {
+            instructions.append("\nInclude pricing estimates.");
+        }
+        if (request.isIncludeInstallationInfo()) {
+            instructions.append("\nInclude installation difficulty ratings.");
+        }
+
+        String queryLabel = "\n\nSearch query: ";
+        int remaining = maxTokens * CHARS_PER_TOKEN - vehicleLine.length() - instructions.length() - queryLabel.length();
+        boolean trimmed = false;
+
+        String query = compact(request.getQuery());
+        int queryBudget = Math.max(remaining, MIN_QUERY_CHARS);
+        if (query.length() > queryBudget) {
+            query = query.substring(0, queryBudget);
+            trimmed = true;
+        }
+        remaining -= query.length();
+
+        StringBuilder details = new StringBuilder();
+        for (String detail : vehicleDetails(vehicle)) {
+            if (detail.length() <= remaining) {
+                details.append(detail);
+                remaining -= detail.length();
+            } else {
+                trimmed = true;
+            }
+        }
+
+        if (trimmed) {
+            trimmedPrompts.increment();
+            logger.debug("Parts search prompt for vehicle {} trimmed to {} tokens", vehicle.getId(), maxTokens);
+        }
+        return vehicleLine + details + queryLabel + query + instructions;
+    }
+
+    /**
+     * Builds one message covering several vehicles, each labelled with its ID in brackets.
+     * Details are kept for every vehicle (each capped in length) since the answer is keyed per vehicle;
+     * only the query is held to the single-vehicle budget.
+     */
+    public String buildBatch(List<Vehicle> vehicles, PartsSearchRequest request) {
+        StringBuilder sb = new StringBuilder("Vehicles:");
+        for (Vehicle vehicle : vehicles) {
+            sb.append("\n[").append(vehicle.getId()).append("] ")
+              .append(vehicle.getYear()).append(" ").append(compact(vehicle.getMake())).append(" ").append(compact(vehicle.getModel()));
+            for (String detail : vehicleDetails(vehicle)) {
+                sb.append("; ").append(detail.strip());
+            }
+        }
+
+        String query = compact(request.getQuery());
+        int queryBudget = Math.max(maxTokens * CHARS_PER_TOKEN / 2, MIN_QUERY_CHARS);
+        if (query.length() > queryBudget) {
+            query = query.substring(0, queryBudget);
+            trimmedPrompts.increment();
+        }
+        sb.append("\n\nSearch query: ").append(query);
+        sb.append("\n\nFor each vehicle, suggest up to ").append(request.getMaxResults()).append(" relevant parts.");
+        if (request.isIncludePricing()) {
+            sb.append("\nInclude pricing estimates.");
+        }
+        if (request.isIncludeInstallationInfo()) {
+            sb.append("\nInclude installation difficulty ratings.");
+        }
+        return sb.toString();
+    }
+
+    // Most useful first: engine decides most part fitments
+    private List<String> vehicleDetails(Vehicle vehicle) {
+        List<String> details = new ArrayList<>();
+        String engine = compact(vehicle.getEngine());
+        String engineSize = compact(vehicle.getEngineSize());
+        if (!engine.isEmpty() || !engineSize.isEmpty()) {
+            String line = engine.isEmpty() ? engineSize : engineSize.isEmpty() ? engine : engine + " (" + engineSize + ")";
+            details.add("\nEngine: " + truncate(line));
+        }
+        if (!compact(vehicle.getTransmission()).isEmpty()) {
+            details.add("\nTransmission: " + truncate(compact(vehicle.getTransmission())));
+        }
+        if (!compact(vehicle.getDrivetrain()).isEmpty()) {
+            details.add("\nDrivetrain: " + truncate(compact(vehicle.getDrivetrain())));
+        }
+        return details;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_DETAIL_CHARS ? value.substring(0, MAX_DETAIL_CHARS) : value;
+    }
+
+    private static String compact(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,258 @@
+package com.virtualgarage.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.dto.PartsSearchResponse;
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+import com.virtualgarage.entity.PartsSearchHistory;
+import com.virtualgarage.entity.PartsSearchQueryStats;
+import com.virtualgarage.entity.Vehicle;
+import com.virtualgarage.repository.PartsSearchHistoryRepository;
+import com.virtualgarage.repository.PartsSearchQueryStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records completed parts searches off the request path. Searches are queued in memory and
+ * written in batches, together with an incremental update of the per make/model query counts
+ * behind {@link #getPopularQueries(String, String, int)}. History rows and query counts are
+ * written in separate transactions, so a failed count update never loses the history. When the
+ * queue is full new searches are dropped rather than slowing down requests.
+ */
+@Service
+public class PartsSearchHistoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PartsSearchHistoryService.class);
+    private static final TypeReference<List<PartSuggestion>> SUGGESTION_LIST = new TypeReference<>() {};
+    
+    private final PartsSearchHistoryRepository historyRepository;
+    private final PartsSearchQueryStatsRepository statsRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean nativeUpsert;
+    private final int batchSize;
+    private final BlockingQueue<PendingSearch> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter statsFailed;
+    
+    private record PendingSearch(Long vehicleId, String make, String model, Integer year, String engine,
+                                 String query, String provider, long latencyMs,
+                                 List<PartSuggestion> suggestions, LocalDateTime searchedAt) {
+    }
+    
+    public PartsSearchHistoryService(PartsSearchHistoryRepository historyRepository,
+                                     PartsSearchQueryStatsRepository statsRepository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${virtual-garage.parts-search.history.enabled:true}") boolean enabled,
+                                     @Value("${virtual-garage.parts-search.history.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${virtual-garage.parts-search.history.batch-size:500}") int batchSize,
+                                     @Value("${virtual-garage.parts-search.history.native-upsert:true}") boolean nativeUpsert) {
+        this.historyRepository = historyRepository;
+        this.statsRepository = statsRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.nativeUpsert = nativeUpsert;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("parts.search.history")
+                .tag("result", "written")
+                .description("Parts searches recorded in the search history")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("parts.search.history")
+                .tag("result", "dropped")
+                .description("Parts searches recorded in the search history")
+                .register(meterRegistry);
+        this.statsFailed = Counter.builder("parts.search.history.stats.failed")
+                .description("Parts searches whose popular query counts could not be updated")
+                .register(meterRegistry);
+        Gauge.builder("parts.search.history.queue", queue, BlockingQueue::size)
+                .description("Parts searches waiting to be written to the search history")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Queues a completed search; returns immediately.
+     */
+    public void record(Vehicle vehicle, String query, PartsSearchResponse response, long latencyMs) {
+        if (!enabled) {
+            return;
+        }
+        PendingSearch search = new PendingSearch(vehicle.getId(), vehicle.getMake(), vehicle.getModel(),
+                vehicle.getYear(), vehicle.getEngine(), query, response.getLlmProvider(), latencyMs,
+                PartsSuggestionCache.copyOf(response.getSuggestions()), LocalDateTime.now());
+        if (!queue.offer(search)) {
+            dropped.increment();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${virtual-garage.parts-search.history.flush-interval:2000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingSearch> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    /**
+     * Most searched queries for a make/model with the suggestions last returned for each,
+     * so common questions can be answered without a new search.
+     */
+    public List<Map<String, Object>> getPopularQueries(String make, String model, int limit) {
+        if (limit <= 0 || limit > 100) {
+            throw new IllegalArgumentException("limit must be between 1 and 100");
+        }
+        List<Map<String, Object>> popular = new ArrayList<>();
+        for (PartsSearchQueryStats stats : statsRepository.findByVehicleMakeAndVehicleModelOrderBySearchCountDesc(
+                normalize(make), normalize(model), PageRequest.of(0, limit))) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("query", stats.getNormalizedQuery());
+            entry.put("search_count", stats.getSearchCount());
+            entry.put("last_searched_at", stats.getLastSearchedAt());
+            entry.put("suggestions", readSuggestions(stats.getLastSuggestions()));
+            popular.add(entry);
+        }
+        return popular;
+    }
+    
+    private void write(List<PendingSearch> batch) {
+        List<PartsSearchHistory> rows = new ArrayList<>(batch.size());
+        Map<String, PartsSearchQueryStats> deltas = new LinkedHashMap<>();
+        
+        for (PendingSearch search : batch) {
+            String suggestions = writeSuggestions(search.suggestions());
+            String make = normalize(search.make());
+            String model = normalize(search.model());
+            String normalizedQuery = normalize(search.query());
+            
+            PartsSearchHistory row = new PartsSearchHistory();
+            row.setVehicleId(search.vehicleId());
+            row.setVehicleMake(search.make());
+            row.setVehicleModel(search.model());
+            row.setVehicleYear(search.year());
+            row.setVehicleSignature(String.join("|", String.valueOf(search.year()), make, model, normalize(search.engine())));
+            row.setQuery(truncate(search.query()));
+            row.setNormalizedQuery(truncate(normalizedQuery));
+            row.setLlmProvider(search.provider());
+            row.setLatencyMs(search.latencyMs());
+            row.setSuggestionCount(search.suggestions().size());
+            row.setSuggestions(suggestions);
+            row.setCreatedAt(search.searchedAt());
+            rows.add(row);
+            
+            // Fold the batch per make/model/query; later searches replace the stored suggestions
+            String key = statsKey(make, model, normalizedQuery);
+            PartsSearchQueryStats delta = deltas.computeIfAbsent(key, k -> new PartsSearchQueryStats(
+                    k, make, model, truncate(normalizedQuery), 0L, suggestions, search.searchedAt()));
+            delta.setSearchCount(delta.getSearchCount() + 1);
+            delta.setLastSuggestions(suggestions);
+            delta.setLastSearchedAt(search.searchedAt());
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> historyRepository.saveAll(rows));
+            written.increment(rows.size());
+        } catch (Exception e) {
+            dropped.increment(rows.size());
+            logger.warn("Failed to write {} parts search history rows: {}", rows.size(), e.getMessage());
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> deltas.values().forEach(this::writeStats));
+        } catch (Exception e) {
+            statsFailed.increment(rows.size());
+            logger.warn("Failed to update popular query counts for {} parts searches: {}", rows.size(), e.getMessage());
+        }
+    }
+    
+    private void writeStats(PartsSearchQueryStats delta) {
+        if (nativeUpsert) {
+            statsRepository.upsertSearches(delta.getStatsKey(), delta.getVehicleMake(), delta.getVehicleModel(),
+                    delta.getNormalizedQuery(), delta.getSearchCount(), delta.getLastSuggestions(),
+                    delta.getLastSearchedAt());
+            return;
+        }
+        // Databases without ON CONFLICT (H2 in the test and local profiles) run a single instance
+        int updated = statsRepository.addSearches(delta.getStatsKey(), delta.getSearchCount(),
+                delta.getLastSuggestions(), delta.getLastSearchedAt());
+        if (updated == 0) {
+            statsRepository.save(delta);
+        }
+    }
+    
+    private String writeSuggestions(List<PartSuggestion> suggestions) {
+        try {
+            return objectMapper.writerFor(SUGGESTION_LIST).writeValueAsString(suggestions);
+        } catch (Exception e) {
+            logger.debug("Failed to serialize parts suggestions: {}", e.getMessage());
+            return "[]";
+        }
+    }
+    
+    private List<PartSuggestion> readSuggestions(String json) {
+        try {
+            return objectMapper.readValue(json, SUGGESTION_LIST);
+        } catch (Exception e) {
+            logger.debug("Failed to read stored parts suggestions: {}", e.getMessage());
+            return List.of();
+        }
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    private static String truncate(String value) {
+        return value.length() > 500 ? value.substring(0, 500) : value;
+    }
+    
+    private static String statsKey(String make, String model, String normalizedQuery) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((make + "\n" + model + "\n" + normalizedQuery).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.virtualgarage.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.config.TaskExecutors;
+import com.virtualgarage.dto.BatchPartsSearchRequest;
+import com.virtualgarage.dto.BatchPartsSearchResponse;
 import com.virtualgarage.dto.PartsSearchRequest;
 import com.virtualgarage.dto.PartsSearchResponse;
 import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
@@ -11,16 +13,37 @@ import com.virtualgarage.entity.InstructionalVideo;
 import com.virtualgarage.entity.Vehicle;
 import com.virtualgarage.llm.LlmClient;
 import com.virtualgarage.llm.LlmClientFactory;
-import com.virtualgarage.llm.LlmException;
+import com.virtualgarage.llm.LlmOverloadedException;
+import com.virtualgarage.llm.LlmProperties;
 import com.virtualgarage.repository.InstructionalVideoRepository;
 import com.virtualgarage.repository.PartSuggestionRepository;
 import com.virtualgarage.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -34,12 +57,31 @@ public class PartsSearchService {
     private static final Logger logger = LoggerFactory.getLogger(PartsSearchService.class);
     private static final int MAX_VIDEOS_PER_PART = 3;
     private static final int MAX_COMMUNITY_SUGGESTIONS = 5;
+    // Best-matching videos loaded per search; the rest are older or less specific to the vehicle
+    private static final int MAX_VEHICLE_VIDEOS = 200;
     
     private final LlmClientFactory llmClientFactory;
     private final VehicleRepository vehicleRepository;
     private final InstructionalVideoRepository videoRepository;
     private final PartSuggestionRepository partSuggestionRepository;
+    private final PartsSuggestionCache suggestionCache;
+    private final PartsPromptBuilder promptBuilder;
+    private final PartsSearchHistoryService searchHistory;
+    private final LlmProperties llmProperties;
     private final ObjectMapper objectMapper;
+    private final PartSuggestionExtractor suggestionExtractor;
+    
+    // LLM calls in progress keyed by prompt fingerprint, shared by identical concurrent searches
+    private final Map<String, CompletableFuture<List<PartSuggestion>>> inFlightCalls = new ConcurrentHashMap<>();
+    private final Counter cacheHits;
+    private final Counter coalescedRequests;
+    private final Counter llmCalls;
+    private final Counter batchFallbacks;
+    private final ExecutorService streamingExecutor;
+    private final ExecutorService lookupExecutor;
+    private final int maxBatchVehicles;
+    private final int vehiclesPerCall;
+    private final int batchFallbackConcurrency;
     
     private static final String SYSTEM_PROMPT = """
         You are an expert automotive parts advisor. Your role is to help users find the right parts
@@ -68,16 +110,87 @@ public class PartsSearchService {
         - whereToBuy: array of strings (recommended retailers/sources)
         """;
     
+    private static final String BATCH_SYSTEM_PROMPT = """
+        You are an expert automotive parts advisor. Your role is to help users find the right parts
+        for each vehicle in their garage. You have extensive knowledge of:
+        - OEM and aftermarket parts compatibility
+        - Part numbers and cross-references
+        - Pricing ranges and value recommendations
+        - Installation difficulty and requirements
+        - Reputable brands and suppliers
+        
+        You will be given several vehicles, each labelled with an ID in brackets, and one search query.
+        Answer the query separately for every vehicle, considering its year, make, model and engine.
+        
+        Respond ONLY with a valid JSON object. No additional text.
+        Use each vehicle ID (without brackets) as a key, and a JSON array of part suggestions as its value.
+        Each suggestion should have these fields:
+        - name: string (part name)
+        - partNumber: string (OEM or common aftermarket number if known, or "Varies by brand")
+        - description: string (one sentence)
+        - brand: string (recommended brand or "Multiple options")
+        - priceRange: string (e.g., "$50-100")
+        - installationDifficulty: string (Easy/Medium/Hard/Professional)
+        - notes: string (any important notes)
+        - whereToBuy: array of strings (recommended retailers/sources)
+        """;
+    
     public PartsSearchService(LlmClientFactory llmClientFactory, 
                               VehicleRepository vehicleRepository,
                               InstructionalVideoRepository videoRepository,
                               PartSuggestionRepository partSuggestionRepository,
-                              ObjectMapper objectMapper) {
+                              PartsSuggestionCache suggestionCache,
+                              PartsPromptBuilder promptBuilder,
+                              PartsSearchHistoryService searchHistory,
+                              LlmProperties llmProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              TaskExecutors taskExecutors,
+                              @Value("${llm.streaming.max-concurrent:8}") int maxConcurrentStreams,
+                              @Value("${virtual-garage.parts-search.lookup-threads:8}") int lookupThreads,
+                              @Value("${virtual-garage.parts-search.batch.max-vehicles:50}") int maxBatchVehicles,
+                              @Value("${virtual-garage.parts-search.batch.vehicles-per-call:8}") int vehiclesPerCall,
+                              @Value("${virtual-garage.parts-search.batch.fallback-concurrency:3}") int batchFallbackConcurrency) {
         this.llmClientFactory = llmClientFactory;
         this.vehicleRepository = vehicleRepository;
         this.videoRepository = videoRepository;
         this.partSuggestionRepository = partSuggestionRepository;
+        this.suggestionCache = suggestionCache;
+        this.promptBuilder = promptBuilder;
+        this.searchHistory = searchHistory;
+        this.llmProperties = llmProperties;
         this.objectMapper = objectMapper;
+        this.suggestionExtractor = new PartSuggestionExtractor(objectMapper);
+        this.cacheHits = Counter.builder("parts.search.suggestions")
+                .tag("source", "cache")
+                .description("Parts searches by where the AI suggestions came from")
+                .register(meterRegistry);
+        this.coalescedRequests = Counter.builder("parts.search.suggestions")
+                .tag("source", "coalesced")
+                .description("Parts searches by where the AI suggestions came from")
+                .register(meterRegistry);
+        this.llmCalls = Counter.builder("parts.search.suggestions")
+                .tag("source", "llm")
+                .description("Parts searches by where the AI suggestions came from")
+                .register(meterRegistry);
+        this.batchFallbacks = Counter.builder("parts.search.batch.fallbacks")
+                .description("Vehicles in a batch search answered by an individual LLM call because the batched answer could not be used")
+                .register(meterRegistry);
+        Gauge.builder("parts.search.llm.in_flight", inFlightCalls, Map::size)
+                .description("Distinct LLM calls currently in progress")
+                .register(meterRegistry);
+        this.streamingExecutor = Executors.newFixedThreadPool(maxConcurrentStreams,
+                taskExecutors.threadFactory("parts-stream-"));
+        this.lookupExecutor = taskExecutors.newIoExecutor("parts-lookup-", lookupThreads);
+        this.maxBatchVehicles = maxBatchVehicles;
+        this.vehiclesPerCall = Math.max(1, vehiclesPerCall);
+        this.batchFallbackConcurrency = batchFallbackConcurrency;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        streamingExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
     }
     
     /**
@@ -87,56 +200,325 @@ public class PartsSearchService {
      * @return Parts search response with AI-generated suggestions and video links
      */
     public PartsSearchResponse searchParts(PartsSearchRequest request) {
+        return await(searchPartsAsync(request));
+    }
+    
+    /**
+     * Non-blocking variant of {@link #searchParts(PartsSearchRequest)}. No thread is held
+     * while the LLM generates; the future completes once the answer and lookups are in.
+     */
+    public CompletableFuture<PartsSearchResponse> searchPartsAsync(PartsSearchRequest request) {
         logger.info("Parts search request for vehicle {} with query: {}", 
                 request.getVehicleId(), request.getQuery());
+        long started = System.nanoTime();
         
         // Get vehicle details
         Vehicle vehicle = vehicleRepository.findByIdAndIsActiveTrue(request.getVehicleId())
                 .orElseThrow(() -> new IllegalArgumentException("Vehicle not found: " + request.getVehicleId()));
         
         // Build the user message with vehicle context
-        String userMessage = buildUserMessage(vehicle, request);
+        String userMessage = promptBuilder.build(vehicle, request);
         
-        // Get LLM client and call API
+        // Database lookups don't depend on the LLM answer, so run them alongside it
         LlmClient client = llmClientFactory.getClient();
-        String llmResponse;
+        CompletableFuture<List<InstructionalVideo>> vehicleVideos = findVehicleVideosAsync(vehicle);
+        CompletableFuture<List<CommunityPartSuggestion>> community = findCommunitySuggestionsAsync(request, vehicle);
         
-        try {
-            llmResponse = client.chat(SYSTEM_PROMPT, userMessage);
-            logger.debug("LLM response: {}", llmResponse);
-        } catch (LlmException e) {
-            logger.error("LLM API call failed", e);
-            throw e;
+        // Call the LLM, unless the same prompt was answered recently
+        return getSuggestionsAsync(client, userMessage)
+                .thenCombine(vehicleVideos, (suggestions, videos) -> {
+                    // Limit results if requested
+                    if (suggestions.size() > request.getMaxResults()) {
+                        suggestions = suggestions.subList(0, request.getMaxResults());
+                    }
+                    
+                    // Enrich each suggestion with installation videos
+                    for (PartSuggestion suggestion : suggestions) {
+                        suggestion.setInstallationVideos(matchInstallationVideos(suggestion.getName(), videos, vehicle));
+                    }
+                    return suggestions;
+                })
+                .thenCombine(community, (suggestions, communitySuggestions) ->
+                        buildResponse(vehicle, request, client, suggestions, communitySuggestions))
+                .thenApply(response -> recordHistory(vehicle, request, response, started));
+    }
+    
+    /**
+     * Runs one query against several vehicles with as few LLM calls as possible.
+     * Vehicles whose prompts are identical share an answer, cached prompts are served from the cache,
+     * and the rest are sent {@code vehicles-per-call} at a time in one structured prompt whose answer is
+     * keyed by vehicle ID. Vehicles missing from a batched answer, or covered by one that failed or
+     * cannot be parsed, fall back to individual calls with bounded concurrency. Video and community lookups run in parallel.
+     */
+    public CompletableFuture<BatchPartsSearchResponse> searchPartsBatchAsync(BatchPartsSearchRequest request) {
+        List<Long> vehicleIds = request.getVehicleIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (vehicleIds.size() > maxBatchVehicles) {
+            throw new IllegalArgumentException("At most " + maxBatchVehicles + " vehicles can be searched at once");
         }
+        logger.info("Batch parts search for {} vehicles with query: {}", vehicleIds.size(), request.getQuery());
+        long started = System.nanoTime();
         
-        // Parse LLM response into structured data
-        List<PartSuggestion> suggestions = parseLlmResponse(llmResponse);
+        Map<Long, Vehicle> vehicles = vehicleRepository.findAllById(vehicleIds).stream()
+                .filter(vehicle -> Boolean.TRUE.equals(vehicle.getIsActive()))
+                .collect(Collectors.toMap(Vehicle::getId, vehicle -> vehicle));
         
-        // Limit results if requested
-        if (suggestions.size() > request.getMaxResults()) {
-            suggestions = suggestions.subList(0, request.getMaxResults());
+        LlmClient client = llmClientFactory.getClient();
+        Map<Long, String> errors = new ConcurrentHashMap<>();
+        
+        // Vehicles with the same prompt (same year, make, model and details) get the same answer
+        Map<String, List<Vehicle>> vehiclesByPrompt = new LinkedHashMap<>();
+        for (Long vehicleId : vehicleIds) {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            if (vehicle == null) {
+                errors.put(vehicleId, "Vehicle not found: " + vehicleId);
+                continue;
+            }
+            String prompt = promptBuilder.build(vehicle, request.toVehicleRequest(vehicleId));
+            vehiclesByPrompt.computeIfAbsent(prompt, key -> new ArrayList<>()).add(vehicle);
         }
         
-        // Enrich each suggestion with installation videos
-        for (PartSuggestion suggestion : suggestions) {
-            List<InstallationVideo> videos = findInstallationVideos(
-                    suggestion.getName(),
-                    vehicle.getMake(),
-                    vehicle.getModel(),
-                    vehicle.getYear()
-            );
-            suggestion.setInstallationVideos(videos);
+        Map<String, CompletableFuture<List<PartSuggestion>>> suggestionsByPrompt = new HashMap<>();
+        List<String> uncachedPrompts = new ArrayList<>();
+        for (String prompt : vehiclesByPrompt.keySet()) {
+            Optional<List<PartSuggestion>> cached = cachedSuggestions(client, prompt);
+            if (cached.isPresent()) {
+                suggestionsByPrompt.put(prompt, CompletableFuture.completedFuture(cached.get()));
+            } else {
+                uncachedPrompts.add(prompt);
+            }
         }
         
-        // Get community suggestions for this vehicle and query
-        List<CommunityPartSuggestion> communitySuggestions = findCommunitySuggestions(
-                request.getQuery(),
-                vehicle.getMake(),
-                vehicle.getModel(),
-                vehicle.getYear()
-        );
+        AtomicInteger llmRoundTrips = new AtomicInteger();
+        AsyncLimiter individualCalls = new AsyncLimiter(batchFallbackConcurrency);
+        for (int start = 0; start < uncachedPrompts.size(); start += vehiclesPerCall) {
+            List<String> group = uncachedPrompts.subList(start, Math.min(start + vehiclesPerCall, uncachedPrompts.size()));
+            if (group.size() == 1) {
+                String prompt = group.get(0);
+                llmRoundTrips.incrementAndGet();
+                suggestionsByPrompt.put(prompt, individualCalls.submit(() -> getSuggestionsAsync(client, prompt)));
+                continue;
+            }
+            
+            Map<Long, String> promptsByVehicleId = new LinkedHashMap<>();
+            group.forEach(prompt -> promptsByVehicleId.put(vehiclesByPrompt.get(prompt).get(0).getId(), prompt));
+            llmRoundTrips.incrementAndGet();
+            CompletableFuture<Map<String, List<PartSuggestion>>> batch =
+                    batchSuggestionsAsync(client, promptsByVehicleId, vehicles, request)
+                            .exceptionally(error -> {
+                                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                        ? error.getCause() : error;
+                                // An overloaded provider would refuse the individual calls as well
+                                if (cause instanceof LlmOverloadedException) {
+                                    throw new CompletionException(cause);
+                                }
+                                logger.warn("Batched LLM call failed, falling back to individual searches: {}",
+                                        cause.getMessage());
+                                return Map.of();
+                            });
+            
+            for (String prompt : group) {
+                suggestionsByPrompt.put(prompt, batch.thenCompose(answers -> {
+                    List<PartSuggestion> answer = answers.get(prompt);
+                    if (answer != null) {
+                        return CompletableFuture.completedFuture(answer);
+                    }
+                    batchFallbacks.increment();
+                    llmRoundTrips.incrementAndGet();
+                    return individualCalls.submit(() -> getSuggestionsAsync(client, prompt));
+                }));
+            }
+        }
+        
+        // Lookups and response assembly per vehicle; a failure only affects that vehicle
+        List<CompletableFuture<Optional<PartsSearchResponse>>> responses = new ArrayList<>();
+        vehiclesByPrompt.forEach((prompt, promptVehicles) -> {
+            for (Vehicle vehicle : promptVehicles) {
+                PartsSearchRequest vehicleRequest = request.toVehicleRequest(vehicle.getId());
+                CompletableFuture<List<InstructionalVideo>> vehicleVideos = findVehicleVideosAsync(vehicle);
+                CompletableFuture<List<CommunityPartSuggestion>> community = findCommunitySuggestionsAsync(vehicleRequest, vehicle);
+                responses.add(suggestionsByPrompt.get(prompt)
+                        .thenApply(shared -> new ArrayList<>(PartsSuggestionCache.copyOf(shared)))
+                        .thenCombine(vehicleVideos, (suggestions, videos) -> {
+                            List<PartSuggestion> limited = suggestions.size() > vehicleRequest.getMaxResults()
+                                    ? suggestions.subList(0, vehicleRequest.getMaxResults()) : suggestions;
+                            for (PartSuggestion suggestion : limited) {
+                                suggestion.setInstallationVideos(matchInstallationVideos(suggestion.getName(), videos, vehicle));
+                            }
+                            return limited;
+                        })
+                        .thenCombine(community, (suggestions, communitySuggestions) ->
+                                buildResponse(vehicle, vehicleRequest, client, suggestions, communitySuggestions))
+                        .thenApply(response -> recordHistory(vehicle, vehicleRequest, response, started))
+                        .handle((response, error) -> {
+                            if (error != null) {
+                                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                        ? error.getCause() : error;
+                                logger.warn("Batch parts search failed for vehicle {}: {}", vehicle.getId(), cause.getMessage());
+                                errors.put(vehicle.getId(), String.valueOf(cause.getMessage()));
+                                return Optional.<PartsSearchResponse>empty();
+                            }
+                            return Optional.of(response);
+                        }));
+            }
+        });
+        
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<Long, PartsSearchResponse> byVehicle = new HashMap<>();
+                    responses.forEach(future -> future.join()
+                            .ifPresent(response -> byVehicle.put(response.getVehicleId(), response)));
+                    
+                    BatchPartsSearchResponse response = new BatchPartsSearchResponse();
+                    response.setQuery(request.getQuery());
+                    for (Long vehicleId : vehicleIds) {
+                        if (byVehicle.containsKey(vehicleId)) {
+                            response.getResults().add(byVehicle.get(vehicleId));
+                        } else if (errors.containsKey(vehicleId)) {
+                            response.getErrors().put(vehicleId, errors.get(vehicleId));
+                        }
+                    }
+                    response.setLlmCalls(llmRoundTrips.get());
+                    response.setSummary(String.format("Searched %d of %d vehicles for %s with %d LLM calls",
+                            response.getResults().size(), vehicleIds.size(), request.getQuery(), llmRoundTrips.get()));
+                    return response;
+                });
+    }
+    
+    /**
+     * One LLM call for several vehicles. Returns the parsed suggestions keyed by each vehicle's
+     * individual prompt (and caches them under it); vehicles the answer does not cover are left out.
+     */
+    private CompletableFuture<Map<String, List<PartSuggestion>>> batchSuggestionsAsync(LlmClient client,
+                                                                                        Map<Long, String> promptsByVehicleId,
+                                                                                        Map<Long, Vehicle> vehicles,
+                                                                                        BatchPartsSearchRequest request) {
+        List<Vehicle> batchVehicles = promptsByVehicleId.keySet().stream()
+                .map(vehicles::get)
+                .collect(Collectors.toList());
+        String userMessage = promptBuilder.buildBatch(batchVehicles, request.toVehicleRequest(null));
+        
+        llmCalls.increment();
+        return client.chatAsync(BATCH_SYSTEM_PROMPT, userMessage)
+                .thenApply(response -> {
+                    Map<String, List<PartSuggestion>> answers = new HashMap<>();
+                    Optional<Map<String, List<PartSuggestion>>> parsed = parseBatchResponse(response);
+                    if (parsed.isEmpty()) {
+                        return answers;
+                    }
+                    promptsByVehicleId.forEach((vehicleId, prompt) -> {
+                        List<PartSuggestion> suggestions = parsed.get().get(String.valueOf(vehicleId));
+                        if (suggestions != null && !suggestions.isEmpty()) {
+                            answers.put(prompt, suggestions);
+                            if (llmProperties.getCache().isEnabled()) {
+                                suggestionCache.put(PartsSuggestionCache.fingerprint(
+                                        client.getProviderName(), client.getModelName(), prompt), suggestions);
+                            }
+                        }
+                    });
+                    return answers;
+                });
+    }
+    
+    /**
+     * Streaming variant of {@link #searchParts(PartsSearchRequest)}. Runs in the background and
+     * passes each AI suggestion, already enriched with videos, to {@code onSuggestion} as soon as
+     * the model has finished writing it. The returned future completes with the full response.
+     */
+    public CompletableFuture<PartsSearchResponse> searchPartsStreaming(PartsSearchRequest request,
+                                                                       Consumer<PartSuggestion> onSuggestion) {
+        logger.info("Streaming parts search request for vehicle {} with query: {}",
+                request.getVehicleId(), request.getQuery());
+        
+        Vehicle vehicle = vehicleRepository.findByIdAndIsActiveTrue(request.getVehicleId())
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found: " + request.getVehicleId()));
+        String userMessage = promptBuilder.build(vehicle, request);
+        LlmClient client = llmClientFactory.getClient();
+        long started = System.nanoTime();
+        
+        return CompletableFuture.supplyAsync(
+                () -> recordHistory(vehicle, request, streamSuggestions(vehicle, request, client, userMessage, onSuggestion), started),
+                streamingExecutor);
+    }
+    
+    private PartsSearchResponse streamSuggestions(Vehicle vehicle, PartsSearchRequest request, LlmClient client,
+                                                  String userMessage, Consumer<PartSuggestion> onSuggestion) {
+        boolean cacheEnabled = llmProperties.getCache().isEnabled();
+        String cacheKey = PartsSuggestionCache.fingerprint(client.getProviderName(), client.getModelName(), userMessage);
+        CompletableFuture<List<InstructionalVideo>> vehicleVideos = findVehicleVideosAsync(vehicle);
+        CompletableFuture<List<CommunityPartSuggestion>> community = findCommunitySuggestionsAsync(request, vehicle);
+        
+        List<PartSuggestion> suggestions = new ArrayList<>();
+        Consumer<PartSuggestion> emit = suggestion -> {
+            if (suggestions.size() >= request.getMaxResults()) {
+                return;
+            }
+            suggestion.setInstallationVideos(matchInstallationVideos(suggestion.getName(), await(vehicleVideos), vehicle));
+            suggestions.add(suggestion);
+            onSuggestion.accept(suggestion);
+        };
         
-        // Build response
+        Optional<List<PartSuggestion>> cached = cacheEnabled ? suggestionCache.get(cacheKey) : Optional.empty();
+        if (cached.isPresent()) {
+            cacheHits.increment();
+            cached.get().forEach(emit);
+        } else {
+            llmCalls.increment();
+            List<PartSuggestion> parsed = new ArrayList<>();
+            PartSuggestionStreamParser parser = new PartSuggestionStreamParser(objectMapper, suggestion -> {
+                parsed.add(suggestion.copy());
+                emit.accept(suggestion);
+            });
+            
+            String llmResponse = client.chatStream(SYSTEM_PROMPT, userMessage, parser::feed);
+            
+            if (parsed.isEmpty()) {
+                // Nothing usable arrived incrementally; fall back to parsing the whole response
+                Optional<PartSuggestionExtractor.Extraction> full = parseLlmResponse(llmResponse);
+                if (full.isPresent() && isCacheable(full.get()) && cacheEnabled) {
+                    suggestionCache.put(cacheKey, full.get().suggestions());
+                }
+                full.map(PartSuggestionExtractor.Extraction::suggestions)
+                        .orElseGet(() -> fallbackSuggestions(llmResponse))
+                        .forEach(emit);
+            } else if (parser.isComplete() && cacheEnabled) {
+                suggestionCache.put(cacheKey, parsed);
+            }
+        }
+        
+        return buildResponse(vehicle, request, client, suggestions, await(community));
+    }
+    
+    /**
+     * Makes sure the AI suggestions for this search are cached, without video or community
+     * lookups and without recording it in the search history. On a cache miss the LLM is
+     * called only if {@code allowLlmCall} agrees. Completes with true when an LLM call was made.
+     */
+    public CompletableFuture<Boolean> warmSuggestionsAsync(Vehicle vehicle, PartsSearchRequest request,
+                                                           BooleanSupplier allowLlmCall) {
+        if (!llmProperties.getCache().isEnabled()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        LlmClient client = llmClientFactory.getClient();
+        String userMessage = promptBuilder.build(vehicle, request);
+        String cacheKey = PartsSuggestionCache.fingerprint(client.getProviderName(), client.getModelName(), userMessage);
+        if (suggestionCache.get(cacheKey).isPresent() || !allowLlmCall.getAsBoolean()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return getSuggestionsAsync(client, userMessage).thenApply(suggestions -> true);
+    }
+    
+    private PartsSearchResponse recordHistory(Vehicle vehicle, PartsSearchRequest request,
+                                              PartsSearchResponse response, long startedNanos) {
+        searchHistory.record(vehicle, request.getQuery(), response, (System.nanoTime() - startedNanos) / 1_000_000);
+        return response;
+    }
+    
+    private PartsSearchResponse buildResponse(Vehicle vehicle, PartsSearchRequest request, LlmClient client,
+                                              List<PartSuggestion> suggestions,
+                                              List<CommunityPartSuggestion> communitySuggestions) {
         PartsSearchResponse response = new PartsSearchResponse();
         response.setVehicleId(vehicle.getId());
         response.setVehicleName(formatVehicleName(vehicle));
@@ -158,32 +540,151 @@ public class PartsSearchService {
     }
     
     /**
-     * Find installation videos for a specific part and vehicle.
-     * Prioritizes videos matching the exact vehicle, then same make, then general.
+     * Returns parsed suggestions for the prompt, from the cache when possible.
+     * Concurrent identical prompts share a single LLM call; every caller receives
+     * its own copy of the result.
      */
-    private List<InstallationVideo> findInstallationVideos(String partName, String make, 
-                                                           String model, Integer year) {
-        List<InstructionalVideo> videos = videoRepository.findVideosForPartAndVehicle(
-                partName, make, model, year);
+    private CompletableFuture<List<PartSuggestion>> getSuggestionsAsync(LlmClient client, String userMessage) {
+        boolean cacheEnabled = llmProperties.getCache().isEnabled();
+        String cacheKey = PartsSuggestionCache.fingerprint(client.getProviderName(), client.getModelName(), userMessage);
+        
+        Optional<List<PartSuggestion>> cached = cachedSuggestions(client, userMessage);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        
+        CompletableFuture<List<PartSuggestion>> call = new CompletableFuture<>();
+        CompletableFuture<List<PartSuggestion>> inFlight = inFlightCalls.putIfAbsent(cacheKey, call);
+        if (inFlight != null) {
+            logger.debug("Joining in-flight LLM call for provider {}", client.getProviderName());
+            coalescedRequests.increment();
+            return inFlight.thenApply(shared -> new ArrayList<>(PartsSuggestionCache.copyOf(shared)));
+        }
+        
+        llmCalls.increment();
+        CompletableFuture<String> llmResponse;
+        try {
+            llmResponse = client.chatAsync(SYSTEM_PROMPT, userMessage);
+        } catch (RuntimeException e) {
+            inFlightCalls.remove(cacheKey, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        
+        llmResponse
+                .thenApply(response -> parseSuggestions(response, cacheEnabled ? cacheKey : null))
+                .whenComplete((suggestions, error) -> {
+                    inFlightCalls.remove(cacheKey, call);
+                    if (error == null) {
+                        call.complete(PartsSuggestionCache.copyOf(suggestions));
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        logger.error("LLM API call failed", cause);
+                        call.completeExceptionally(cause);
+                    }
+                });
+        return call.thenApply(shared -> new ArrayList<>(PartsSuggestionCache.copyOf(shared)));
+    }
+    
+    private Optional<List<PartSuggestion>> cachedSuggestions(LlmClient client, String userMessage) {
+        if (!llmProperties.getCache().isEnabled()) {
+            return Optional.empty();
+        }
+        Optional<List<PartSuggestion>> cached = suggestionCache.get(
+                PartsSuggestionCache.fingerprint(client.getProviderName(), client.getModelName(), userMessage));
+        if (cached.isPresent()) {
+            logger.debug("Parts suggestions served from cache for provider {}", client.getProviderName());
+            cacheHits.increment();
+        }
+        return cached;
+    }
+    
+    /**
+     * Parses an LLM response. Responses that could not be parsed, were cut off or hold no
+     * suggestions are not cached.
+     */
+    private List<PartSuggestion> parseSuggestions(String llmResponse, String cacheKey) {
+        logger.debug("LLM response: {}", llmResponse);
+        
+        // Parse LLM response into structured data
+        Optional<PartSuggestionExtractor.Extraction> parsed = parseLlmResponse(llmResponse);
+        if (parsed.isEmpty()) {
+            return fallbackSuggestions(llmResponse);
+        }
+        // A truncated or empty answer is still shown, but not cached, so the next search asks again
+        if (cacheKey != null && isCacheable(parsed.get())) {
+            suggestionCache.put(cacheKey, parsed.get().suggestions());
+        }
+        return parsed.get().suggestions();
+    }
+    
+    private static boolean isCacheable(PartSuggestionExtractor.Extraction extraction) {
+        return extraction.complete() && !extraction.suggestions().isEmpty();
+    }
+    
+    /**
+     * Waits for a background task, rethrowing its own exception rather than a wrapper.
+     */
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Loads the vehicle's best-matching videos in one query; suggestions are matched against
+     * this list instead of querying once per part. Capped so the lookup stays cheap as the
+     * video catalogue grows.
+     */
+    private CompletableFuture<List<InstructionalVideo>> findVehicleVideosAsync(Vehicle vehicle) {
+        return CompletableFuture.supplyAsync(() -> videoRepository.findVideosForVehicle(
+                vehicle.getMake(), vehicle.getModel(), vehicle.getYear(),
+                PageRequest.of(0, MAX_VEHICLE_VIDEOS)), lookupExecutor);
+    }
+    
+    /**
+     * Pick installation videos for a part from the vehicle's videos.
+     * A video matches when its part type, title or category contains the part name;
+     * the list is already ordered exact vehicle first, then same make, then general.
+     */
+    private List<InstallationVideo> matchInstallationVideos(String partName, List<InstructionalVideo> videos,
+                                                            Vehicle vehicle) {
+        if (partName == null) {
+            return new ArrayList<>();
+        }
+        String name = partName.toLowerCase(Locale.ROOT);
         
         return videos.stream()
+                .filter(video -> containsIgnoreCase(video.getPartType(), name) ||
+                                 containsIgnoreCase(video.getTitle(), name) ||
+                                 containsIgnoreCase(video.getCategory(), name))
                 .limit(MAX_VIDEOS_PER_PART)
-                .map(video -> convertToDto(video, make, model))
+                .map(video -> convertToDto(video, vehicle.getMake(), vehicle.getModel()))
                 .collect(Collectors.toList());
     }
     
+    private static boolean containsIgnoreCase(String value, String lowerCaseTerm) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+    
     /**
      * Find community-submitted part suggestions for the vehicle and query.
+     * Authors and videos are fetched with the suggestions.
      */
-    private List<CommunityPartSuggestion> findCommunitySuggestions(String query, String make,
-                                                                    String model, Integer year) {
-        List<com.virtualgarage.entity.PartSuggestion> suggestions = 
-                partSuggestionRepository.searchPartsForVehicle(query, make, model, year);
-        
-        return suggestions.stream()
+    private CompletableFuture<List<CommunityPartSuggestion>> findCommunitySuggestionsAsync(PartsSearchRequest request,
+                                                                                          Vehicle vehicle) {
+        return CompletableFuture.supplyAsync(() -> partSuggestionRepository.searchPartsForVehicleWithVideos(
+                        request.getQuery(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear())
+                .stream()
                 .limit(MAX_COMMUNITY_SUGGESTIONS)
                 .map(this::convertToCommunityDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), lookupExecutor);
     }
     
     private InstallationVideo convertToDto(InstructionalVideo video, String make, String model) {
@@ -245,71 +746,45 @@ public class PartsSearchService {
         return dto;
     }
     
-    private String buildUserMessage(Vehicle vehicle, PartsSearchRequest request) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Vehicle: ").append(vehicle.getYear()).append(" ")
-          .append(vehicle.getMake()).append(" ").append(vehicle.getModel());
-        
-        if (vehicle.getEngine() != null) {
-            sb.append("\nEngine: ").append(vehicle.getEngine());
-        }
-        if (vehicle.getEngineSize() != null) {
-            sb.append(" (").append(vehicle.getEngineSize()).append(")");
+    private Optional<PartSuggestionExtractor.Extraction> parseLlmResponse(String response) {
+        Optional<PartSuggestionExtractor.Extraction> extraction = suggestionExtractor.extract(response);
+        if (extraction.isEmpty()) {
+            logger.warn("No JSON suggestions found in LLM response, returning raw response as single suggestion");
+        } else if (extraction.get().suggestions().isEmpty()) {
+            logger.info("LLM found no compatible parts");
+        } else if (!extraction.get().complete()) {
+            logger.info("LLM response was cut off; kept {} complete suggestions", extraction.get().suggestions().size());
         }
-        if (vehicle.getTransmission() != null) {
-            sb.append("\nTransmission: ").append(vehicle.getTransmission());
-        }
-        if (vehicle.getDrivetrain() != null) {
-            sb.append("\nDrivetrain: ").append(vehicle.getDrivetrain());
-        }
-        
-        sb.append("\n\nSearch query: ").append(request.getQuery());
-        sb.append("\n\nPlease suggest up to ").append(request.getMaxResults()).append(" relevant parts.");
-        
-        if (request.isIncludePricing()) {
-            sb.append("\nInclude pricing estimates.");
-        }
-        if (request.isIncludeInstallationInfo()) {
-            sb.append("\nInclude installation difficulty ratings.");
-        }
-        
-        return sb.toString();
+        return extraction;
     }
     
-    private List<PartSuggestion> parseLlmResponse(String response) {
-        try {
-            // Clean up response - remove markdown code blocks if present
-            String cleaned = response.trim();
-            if (cleaned.startsWith("```json")) {
-                cleaned = cleaned.substring(7);
-            } else if (cleaned.startsWith("```")) {
-                cleaned = cleaned.substring(3);
-            }
-            if (cleaned.endsWith("```")) {
-                cleaned = cleaned.substring(0, cleaned.length() - 3);
-            }
-            cleaned = cleaned.trim();
-            
-            return objectMapper.readValue(cleaned, new TypeReference<List<PartSuggestion>>() {});
-        } catch (Exception e) {
-            logger.warn("Failed to parse LLM response as JSON, returning raw response as single suggestion", e);
-            
-            // Fallback: return raw response as a single "summary" suggestion
-            PartSuggestion fallback = new PartSuggestion();
-            fallback.setName("AI Suggestions");
-            fallback.setDescription(response);
-            fallback.setPartNumber("N/A");
-            fallback.setBrand("See description");
-            fallback.setPriceRange("Varies");
-            fallback.setInstallationDifficulty("Varies");
-            fallback.setNotes("Raw AI response - structured parsing failed");
-            fallback.setWhereToBuy(List.of("RockAuto", "AutoZone", "Amazon"));
-            fallback.setInstallationVideos(new ArrayList<>());
-            
-            List<PartSuggestion> suggestions = new ArrayList<>();
-            suggestions.add(fallback);
-            return suggestions;
+    /**
+     * Parses a batched answer: a JSON object mapping vehicle IDs to suggestion arrays.
+     */
+    private Optional<Map<String, List<PartSuggestion>>> parseBatchResponse(String response) {
+        Optional<Map<String, List<PartSuggestion>>> parsed = suggestionExtractor.extractKeyed(response);
+        if (parsed.isEmpty()) {
+            logger.warn("Failed to parse batched LLM response, falling back to individual searches");
         }
+        return parsed;
+    }
+    
+    private List<PartSuggestion> fallbackSuggestions(String response) {
+        // Fallback: return raw response as a single "summary" suggestion
+        PartSuggestion fallback = new PartSuggestion();
+        fallback.setName("AI Suggestions");
+        fallback.setDescription(response);
+        fallback.setPartNumber("N/A");
+        fallback.setBrand("See description");
+        fallback.setPriceRange("Varies");
+        fallback.setInstallationDifficulty("Varies");
+        fallback.setNotes("Raw AI response - structured parsing failed");
+        fallback.setWhereToBuy(List.of("RockAuto", "AutoZone", "Amazon"));
+        fallback.setInstallationVideos(new ArrayList<>());
+        
+        List<PartSuggestion> suggestions = new ArrayList<>();
+        suggestions.add(fallback);
+        return suggestions;
     }
     
     private String formatVehicleName(Vehicle vehicle) {
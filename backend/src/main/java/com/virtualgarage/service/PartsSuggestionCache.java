@@ -0,0 +1,48 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Cache of parsed LLM parts suggestions.
+ * Entries are keyed by {@link #fingerprint(String, String, String)} so the same prompt
+ * sent to the same provider and model is answered without another LLM call.
+ */
+public interface PartsSuggestionCache {
+    
+    /**
+     * Returns a copy of the cached suggestions that the caller may modify.
+     */
+    Optional<List<PartSuggestion>> get(String key);
+    
+    /**
+     * Stores the suggestions; later changes to the given list do not affect the entry.
+     */
+    void put(String key, List<PartSuggestion> suggestions);
+    
+    /**
+     * Builds a cache key from the provider, model and prompt text.
+     * The prompt is compared ignoring case and whitespace differences.
+     */
+    static String fingerprint(String provider, String model, String userMessage) {
+        String normalized = userMessage.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((provider + "\n" + model + "\n" + normalized).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    static List<PartSuggestion> copyOf(List<PartSuggestion> suggestions) {
+        return suggestions.stream().map(PartSuggestion::copy).toList();
+    }
+}
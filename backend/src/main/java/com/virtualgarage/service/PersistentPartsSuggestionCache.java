@@ -0,0 +1,88 @@
+package com.virtualgarage.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+import com.virtualgarage.entity.PartsSearchCacheEntry;
+import com.virtualgarage.llm.LlmProperties;
+import com.virtualgarage.repository.PartsSearchCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Parts suggestion cache backed by the parts_search_cache table, with an in-process
+ * tier in front of it. Entries survive restarts and are shared between instances.
+ */
+@Component
+@ConditionalOnProperty(name = "llm.cache.persistent", havingValue = "true")
+public class PersistentPartsSuggestionCache implements PartsSuggestionCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PersistentPartsSuggestionCache.class);
+    private static final TypeReference<List<PartSuggestion>> SUGGESTION_LIST = new TypeReference<>() {};
+    
+    private final InMemoryPartsSuggestionCache memoryCache;
+    private final PartsSearchCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+    private final int ttlMinutes;
+    
+    public PersistentPartsSuggestionCache(LlmProperties properties,
+                                          PartsSearchCacheRepository cacheRepository,
+                                          ObjectMapper objectMapper) {
+        this.memoryCache = new InMemoryPartsSuggestionCache(properties);
+        this.cacheRepository = cacheRepository;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = properties.getCache().getTtlMinutes();
+    }
+    
+    @Override
+    public Optional<List<PartSuggestion>> get(String key) {
+        Optional<List<PartSuggestion>> cached = memoryCache.get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<PartsSearchCacheEntry> entry = cacheRepository.findByCacheKeyAndExpiresAtAfter(key, now);
+            if (entry.isPresent()) {
+                List<PartSuggestion> suggestions = objectMapper.readValue(entry.get().getSuggestions(), SUGGESTION_LIST);
+                // Keep it in memory only for the row's remaining lifetime, not a fresh TTL
+                memoryCache.put(key, suggestions, Duration.between(now, entry.get().getExpiresAt()));
+                return Optional.of(new ArrayList<>(suggestions));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read parts search cache entry: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public void put(String key, List<PartSuggestion> suggestions) {
+        memoryCache.put(key, suggestions);
+        
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            String json = objectMapper.writerFor(SUGGESTION_LIST).writeValueAsString(suggestions);
+            cacheRepository.save(new PartsSearchCacheEntry(key, json, now, now.plusMinutes(ttlMinutes)));
+        } catch (Exception e) {
+            logger.warn("Failed to persist parts search cache entry: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(cron = "${llm.cache.purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        int removed = cacheRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            logger.info("Purged {} expired parts search cache entries", removed);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.virtualgarage.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket used to keep outbound calls within a third-party quota.
+ * Holds up to {@code capacity} tokens and refills {@code permits} tokens per {@code period}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(long capacity, long permits, Duration period) {
+        if (capacity <= 0 || permits <= 0) {
+            throw new IllegalArgumentException("Rate limiter capacity and permits must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = (double) permits / period.toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if one is available right now.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a token, waiting up to {@code maxWait} for one to become available.
+     */
+    public boolean tryAcquire(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return true;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            } finally {
+                lock.unlock();
+            }
+            
+            if (System.nanoTime() + waitNanos > deadline) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
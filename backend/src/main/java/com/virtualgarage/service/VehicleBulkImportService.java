@@ -0,0 +1,118 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.dto.BulkImportResult;
+import com.virtualgarage.dto.VehicleDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk vehicle import. Rows are validated up front, then written in fixed-size
+ * chunks, each in its own transaction, so one bad chunk does not roll back the
+ * whole import. Every rejected row is reported by its index in the request.
+ */
+@Service
+public class VehicleBulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleBulkImportService.class);
+
+    private final VehicleService vehicleService;
+    private final Validator validator;
+
+    @Value("${virtual-garage.import.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${virtual-garage.import.chunk-size:500}")
+    private int chunkSize;
+
+    public VehicleBulkImportService(VehicleService vehicleService, Validator validator) {
+        this.vehicleService = vehicleService;
+        this.validator = validator;
+    }
+
+    public BulkImportResult importVehicles(List<VehicleDTO> vehicleDTOs) {
+        if (vehicleDTOs == null || vehicleDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Import must contain at least one vehicle");
+        }
+        if (vehicleDTOs.size() > maxRows) {
+            throw new IllegalArgumentException("Import exceeds the maximum of " + maxRows + " vehicles per request");
+        }
+        
+        logger.info("Starting bulk import of {} vehicles", vehicleDTOs.size());
+        BulkImportResult result = new BulkImportResult(vehicleDTOs.size());
+        Set<String> seenVins = new HashSet<>();
+        
+        for (int start = 0; start < vehicleDTOs.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, vehicleDTOs.size());
+            
+            List<VehicleDTO> accepted = new ArrayList<>(end - start);
+            List<Integer> acceptedIndexes = new ArrayList<>(end - start);
+            for (int index = start; index < end; index++) {
+                VehicleDTO vehicleDTO = vehicleDTOs.get(index);
+                String error = validate(vehicleDTO, seenVins);
+                if (error != null) {
+                    result.addError(index, vehicleDTO != null ? vehicleDTO.getVinNumber() : null, error);
+                } else {
+                    accepted.add(vehicleDTO);
+                    acceptedIndexes.add(index);
+                }
+            }
+            
+            if (!accepted.isEmpty()) {
+                importChunk(accepted, acceptedIndexes, result);
+            }
+        }
+        
+        logger.info("Bulk import finished: {} created, {} failed", result.getCreated(), result.getFailed());
+        return result;
+    }
+
+    private void importChunk(List<VehicleDTO> accepted, List<Integer> acceptedIndexes, BulkImportResult result) {
+        try {
+            List<String> errors = vehicleService.importVehicles(accepted);
+            int created = 0;
+            for (int i = 0; i < errors.size(); i++) {
+                if (errors.get(i) == null) {
+                    created++;
+                } else {
+                    result.addError(acceptedIndexes.get(i), accepted.get(i).getVinNumber(), errors.get(i));
+                }
+            }
+            result.addCreated(created);
+        } catch (RuntimeException e) {
+            logger.error("Bulk import chunk starting at row {} failed: {}", acceptedIndexes.get(0), e.getMessage());
+            for (int i = 0; i < accepted.size(); i++) {
+                result.addError(acceptedIndexes.get(i), accepted.get(i).getVinNumber(),
+                    "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private String validate(VehicleDTO vehicleDTO, Set<String> seenVins) {
+        if (vehicleDTO == null) {
+            return "Row is empty";
+        }
+        
+        Set<ConstraintViolation<VehicleDTO>> violations = validator.validate(vehicleDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        
+        if (vehicleDTO.getVinNumber() != null && !seenVins.add(vehicleDTO.getVinNumber())) {
+            return "Duplicate VIN " + vehicleDTO.getVinNumber() + " in import";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.virtualgarage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over vehicles ordered by
+ * {@code (createdAt DESC, id DESC)}. Clients must treat the encoded form as opaque.
+ */
+public final class VehicleCursor {
+    
+    /**
+     * Position before the first row, used when the client has no cursor yet.
+     */
+    static final VehicleCursor START = new VehicleCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    
+    private static final String SEPARATOR = "|";
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    VehicleCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a token produced by {@link #encode()}. A null or blank token means the first page.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static VehicleCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return START;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new VehicleCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.virtualgarage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.virtualgarage.dto.VehicleDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the active fleet to an output stream as NDJSON or CSV.
+ * Rows are written chunk by chunk as they come off the database cursor,
+ * using the same field names as {@link VehicleDTO}.
+ */
+@Service
+public class VehicleExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleExportService.class);
+    
+    private static final String TAG_SEPARATOR = ";";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public static Format fromString(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private final VehicleService vehicleService;
+    private final ObjectMapper objectMapper;
+    // Same properties, names and order as the NDJSON rows, so the two formats can't drift
+    private final List<String> csvColumns;
+
+    public VehicleExportService(VehicleService vehicleService, ObjectMapper objectMapper) {
+        this.vehicleService = vehicleService;
+        this.objectMapper = objectMapper;
+        this.csvColumns = objectMapper.getSerializationConfig()
+            .introspect(objectMapper.constructType(VehicleDTO.class))
+            .findProperties()
+            .stream()
+            .map(BeanPropertyDefinition::getName)
+            .toList();
+    }
+
+    public void export(Format format, OutputStream outputStream) throws IOException {
+        logger.info("Starting vehicle export as {}", format);
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(String.join(",", csvColumns));
+            writer.write('\n');
+        }
+        
+        long[] rowCount = {0};
+        try {
+            vehicleService.streamVehicles(chunk -> {
+                try {
+                    for (VehicleDTO vehicle : chunk) {
+                        if (format == Format.CSV) {
+                            writeCsvRow(writer, vehicle);
+                        } else {
+                            writer.write(objectMapper.writeValueAsString(vehicle));
+                            writer.write('\n');
+                        }
+                    }
+                    writer.flush();
+                    rowCount[0] += chunk.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        writer.flush();
+        logger.info("Completed vehicle export as {}: {} rows", format, rowCount[0]);
+    }
+
+    private void writeCsvRow(Writer writer, VehicleDTO vehicle) throws IOException {
+        JsonNode row = objectMapper.valueToTree(vehicle);
+        for (int i = 0; i < csvColumns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(toCsvField(row.get(csvColumns.get(i))));
+        }
+        writer.write('\n');
+    }
+
+    private String toCsvField(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return "";
+        }
+        
+        String text;
+        if (value.isArray()) {
+            StringBuilder sb = new StringBuilder();
+            for (JsonNode element : value) {
+                if (sb.length() > 0) {
+                    sb.append(TAG_SEPARATOR);
+                }
+                sb.append(element.asText());
+            }
+            text = sb.toString();
+        } else {
+            text = value.asText();
+        }
+        
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,326 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.config.TaskExecutors;
+import com.virtualgarage.entity.ImageBackfillCheckpoint;
+import com.virtualgarage.entity.Vehicle;
+import com.virtualgarage.repository.ImageBackfillCheckpointRepository;
+import com.virtualgarage.repository.VehicleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-scrapes images for vehicles that have no image or only a generic fallback image.
+ * Vehicles are walked in id order in fixed-size chunks, each chunk is fanned out over a
+ * bounded worker pool, and the last finished id is checkpointed so an interrupted run
+ * resumes where it stopped. Outbound calls are throttled by the scraper's rate limiter;
+ * vehicles whose lookup was cut short by the quota are retried after a back-off before the
+ * checkpoint moves past them.
+ */
+@Service
+public class VehicleImageBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleImageBackfillService.class);
+    
+    static final String JOB_NAME = "vehicle-image-backfill";
+    
+    private enum Outcome { UPDATED, UNCHANGED, FAILED, RATE_LIMITED }
+    
+    private static final long MAX_BACKOFF_MULTIPLIER = 16;
+    
+    private final VehicleRepository vehicleRepository;
+    private final ImageBackfillCheckpointRepository checkpointRepository;
+    private final VehicleImageScrapingService imageScrapingService;
+    private final int chunkSize;
+    private final Duration rateLimitBackoff;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean stopRequested;
+    private volatile boolean shuttingDown;
+    
+    // Progress of the current run, used for throughput and ETA
+    private final AtomicLong processedThisRun = new AtomicLong();
+    private volatile long runStartedNanos;
+    private volatile long remainingAtStart;
+
+    public VehicleImageBackfillService(VehicleRepository vehicleRepository,
+                                       ImageBackfillCheckpointRepository checkpointRepository,
+                                       VehicleImageScrapingService imageScrapingService,
+                                       TaskExecutors taskExecutors,
+                                       @Value("${vehicle.image.backfill.chunk-size:100}") int chunkSize,
+                                       @Value("${vehicle.image.backfill.pool-size:2}") int poolSize,
+                                       @Value("${vehicle.image.backfill.rate-limit-backoff-seconds:60}") long rateLimitBackoffSeconds) {
+        this.vehicleRepository = vehicleRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.imageScrapingService = imageScrapingService;
+        this.chunkSize = chunkSize;
+        this.rateLimitBackoff = Duration.ofSeconds(rateLimitBackoffSeconds);
+        this.coordinator = Executors.newSingleThreadExecutor(taskExecutors.threadFactory("image-backfill-"));
+        this.workers = Executors.newFixedThreadPool(poolSize, taskExecutors.threadFactory("image-backfill-worker-"));
+    }
+
+    /**
+     * Starts a run in the background, resuming an unfinished one if present.
+     * Returns false if a run is already in progress.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested = false;
+        coordinator.execute(this::run);
+        return true;
+    }
+
+    /**
+     * Asks the current run to stop after its current chunk.
+     */
+    public boolean stop() {
+        if (!running.get()) {
+            return false;
+        }
+        stopRequested = true;
+        return true;
+    }
+
+    @Scheduled(cron = "${vehicle.image.backfill.cron:-}")
+    public void scheduledStart() {
+        if (start()) {
+            logger.info("Started scheduled vehicle image backfill");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        checkpointRepository.findById(JOB_NAME)
+            .filter(checkpoint -> checkpoint.getStatus() == ImageBackfillCheckpoint.Status.RUNNING)
+            .ifPresent(checkpoint -> {
+                logger.info("Resuming vehicle image backfill after vehicle {}", checkpoint.getLastVehicleId());
+                start();
+            });
+    }
+
+    /**
+     * Current checkpoint plus throughput and ETA for the run in progress.
+     */
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("running", running.get());
+        
+        Optional<ImageBackfillCheckpoint> checkpoint = checkpointRepository.findById(JOB_NAME);
+        if (checkpoint.isEmpty()) {
+            progress.put("status", "NEVER_RUN");
+            return progress;
+        }
+        
+        ImageBackfillCheckpoint c = checkpoint.get();
+        progress.put("status", c.getStatus().name());
+        progress.put("last_vehicle_id", c.getLastVehicleId());
+        progress.put("processed", c.getProcessedCount());
+        progress.put("updated", c.getUpdatedCount());
+        progress.put("failed", c.getFailedCount());
+        progress.put("started_at", c.getStartedAt());
+        progress.put("updated_at", c.getUpdatedAt());
+        
+        if (running.get()) {
+            long processed = processedThisRun.get();
+            double elapsedMinutes = (System.nanoTime() - runStartedNanos) / 60_000_000_000.0;
+            double perMinute = elapsedMinutes > 0 ? processed / elapsedMinutes : 0;
+            long remaining = Math.max(0, remainingAtStart - processed);
+            progress.put("remaining", remaining);
+            progress.put("throughput_per_minute", Math.round(perMinute * 10) / 10.0);
+            progress.put("eta_seconds", perMinute > 0 ? Math.round(remaining / perMinute * 60) : null);
+        }
+        return progress;
+    }
+
+    private void run() {
+        try {
+            ImageBackfillCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .filter(existing -> existing.getStatus() == ImageBackfillCheckpoint.Status.RUNNING)
+                .orElseGet(this::newCheckpoint);
+            checkpoint.setStatus(ImageBackfillCheckpoint.Status.RUNNING);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpoint = checkpointRepository.save(checkpoint);
+            
+            List<String> fallbackUrls = VehicleImageScrapingService.getFallbackImages();
+            processedThisRun.set(0);
+            runStartedNanos = System.nanoTime();
+            remainingAtStart = vehicleRepository.countImageBackfillCandidates(checkpoint.getLastVehicleId(), fallbackUrls);
+            logger.info("Vehicle image backfill started with {} candidates after vehicle {}",
+                remainingAtStart, checkpoint.getLastVehicleId());
+            
+            while (!stopRequested && !shuttingDown) {
+                List<Object[]> chunk = vehicleRepository.findImageBackfillCandidates(
+                    checkpoint.getLastVehicleId(), fallbackUrls, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    checkpoint.setStatus(ImageBackfillCheckpoint.Status.COMPLETED);
+                    break;
+                }
+                
+                Long lastAttemptedId = processChunk(chunk, fallbackUrls, checkpoint);
+                
+                // Never advance past a vehicle that is still waiting for the rate limit,
+                // so a restart or the next run picks it up again
+                if (lastAttemptedId != null) {
+                    checkpoint.setLastVehicleId(lastAttemptedId);
+                }
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpoint = checkpointRepository.save(checkpoint);
+            }
+            
+            // On shutdown the checkpoint stays RUNNING so the next startup resumes it
+            if (stopRequested && checkpoint.getStatus() == ImageBackfillCheckpoint.Status.RUNNING) {
+                checkpoint.setStatus(ImageBackfillCheckpoint.Status.STOPPED);
+            }
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            
+            logger.info("Vehicle image backfill {}: processed {}, updated {}, failed {} in {}",
+                checkpoint.getStatus().name().toLowerCase(), checkpoint.getProcessedCount(),
+                checkpoint.getUpdatedCount(), checkpoint.getFailedCount(),
+                Duration.ofNanos(System.nanoTime() - runStartedNanos));
+        } catch (Exception e) {
+            logger.error("Vehicle image backfill aborted: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Backfills one chunk, retrying rate-limited vehicles after a growing back-off until all
+     * have been attempted or the run is stopped. Returns the id up to which every vehicle of
+     * the chunk was attempted, or null if not even the first was.
+     */
+    private Long processChunk(List<Object[]> chunk, List<String> fallbackUrls,
+                              ImageBackfillCheckpoint checkpoint) throws InterruptedException {
+        List<Object[]> pending = chunk;
+        long backoffMultiplier = 1;
+        while (true) {
+            List<CompletableFuture<Outcome>> results = pending.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> backfill(row, fallbackUrls), workers))
+                .toList();
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+            
+            List<Object[]> rateLimited = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                Outcome outcome = results.get(i).join();
+                if (outcome == Outcome.RATE_LIMITED) {
+                    rateLimited.add(pending.get(i));
+                    continue;
+                }
+                checkpoint.setProcessedCount(checkpoint.getProcessedCount() + 1);
+                processedThisRun.incrementAndGet();
+                if (outcome == Outcome.UPDATED) {
+                    checkpoint.setUpdatedCount(checkpoint.getUpdatedCount() + 1);
+                } else if (outcome == Outcome.FAILED) {
+                    checkpoint.setFailedCount(checkpoint.getFailedCount() + 1);
+                }
+            }
+            
+            if (rateLimited.isEmpty()) {
+                return (Long) chunk.get(chunk.size() - 1)[0];
+            }
+            if (rateLimited.size() < pending.size()) {
+                backoffMultiplier = 1;
+            }
+            pending = rateLimited;
+            
+            Duration backoff = rateLimitBackoff.multipliedBy(backoffMultiplier);
+            logger.info("Image search rate limit reached; retrying {} vehicles in {}s", pending.size(), backoff.toSeconds());
+            if (!sleepUnlessStopped(backoff)) {
+                // Vehicles before the first one still pending were all attempted
+                Long firstPendingId = (Long) pending.get(0)[0];
+                Long lastAttemptedId = null;
+                for (Object[] row : chunk) {
+                    if (((Long) row[0]) >= firstPendingId) {
+                        break;
+                    }
+                    lastAttemptedId = (Long) row[0];
+                }
+                return lastAttemptedId;
+            }
+            backoffMultiplier = Math.min(backoffMultiplier * 2, MAX_BACKOFF_MULTIPLIER);
+        }
+    }
+
+    /**
+     * Waits for the back-off in short steps; returns false if the run was stopped meanwhile.
+     */
+    private boolean sleepUnlessStopped(Duration backoff) throws InterruptedException {
+        long deadline = System.nanoTime() + backoff.toNanos();
+        while (!stopRequested && !shuttingDown) {
+            long remainingMs = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remainingMs <= 0) {
+                return true;
+            }
+            Thread.sleep(Math.min(remainingMs, 1000));
+        }
+        return false;
+    }
+
+    private Outcome backfill(Object[] row, List<String> fallbackUrls) {
+        Long vehicleId = (Long) row[0];
+        String make = (String) row[1];
+        String model = (String) row[2];
+        Integer year = (Integer) row[3];
+        String currentImage = (String) row[4];
+        
+        try {
+            VehicleImageScrapingService.SearchResult result = imageScrapingService.scrapeVehicleImage(make, model, year, true);
+            if (result.rateLimited()) {
+                return Outcome.RATE_LIMITED;
+            }
+            Optional<String> imageUrl = result.imageUrl();
+            if (imageUrl.isEmpty()) {
+                return Outcome.FAILED;
+            }
+            
+            // Another fallback only helps vehicles that had no image at all
+            if (VehicleImageScrapingService.isFallbackImage(imageUrl.get()) && currentImage != null) {
+                return Outcome.UNCHANGED;
+            }
+            
+            int updated = vehicleRepository.replaceFallbackImage(vehicleId, imageUrl.get(),
+                Vehicle.ImageEnrichmentStatus.COMPLETED, fallbackUrls);
+            return updated > 0 ? Outcome.UPDATED : Outcome.UNCHANGED;
+        } catch (Exception e) {
+            logger.warn("Image backfill failed for vehicle {}: {}", vehicleId, e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    private ImageBackfillCheckpoint newCheckpoint() {
+        ImageBackfillCheckpoint checkpoint = new ImageBackfillCheckpoint(JOB_NAME);
+        checkpoint.setStartedAt(LocalDateTime.now());
+        return checkpoint;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        coordinator.shutdown();
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+package com.virtualgarage.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.virtualgarage.entity.VehicleImageCacheEntry;
+import com.virtualgarage.repository.VehicleImageCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Two-tier cache for scraped vehicle images keyed by normalized make/model/year.
+ * A bounded in-memory tier sits in front of the vehicle_image_cache table so results
+ * survive restarts. Fallback images are cached for a shorter time than real ones.
+ */
+@Component
+public class VehicleImageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleImageCache.class);
+    
+    private final VehicleImageCacheRepository cacheRepository;
+    private final Cache<String, CachedImage> memoryCache;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+
+    public VehicleImageCache(VehicleImageCacheRepository cacheRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${vehicle.image.cache.max-size:10000}") long maxSize,
+                             @Value("${vehicle.image.cache.ttl-hours:720}") long ttlHours,
+                             @Value("${vehicle.image.cache.negative-ttl-hours:24}") long negativeTtlHours) {
+        this.cacheRepository = cacheRepository;
+        this.positiveTtl = Duration.ofHours(ttlHours);
+        this.negativeTtl = Duration.ofHours(negativeTtlHours);
+        this.memoryCache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new CachedImageExpiry())
+            .build();
+        
+        this.memoryHits = Counter.builder("vehicle.image.cache")
+            .tag("result", "hit").tag("tier", "memory")
+            .description("Vehicle image cache lookups")
+            .register(meterRegistry);
+        this.databaseHits = Counter.builder("vehicle.image.cache")
+            .tag("result", "hit").tag("tier", "database")
+            .description("Vehicle image cache lookups")
+            .register(meterRegistry);
+        this.misses = Counter.builder("vehicle.image.cache")
+            .tag("result", "miss").tag("tier", "none")
+            .description("Vehicle image cache lookups")
+            .register(meterRegistry);
+        Gauge.builder("vehicle.image.cache.size", memoryCache, Cache::estimatedSize)
+            .description("Entries held in the in-memory vehicle image cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Builds the cache key for a vehicle, ignoring case and extra whitespace.
+     */
+    public static String keyFor(String make, String model, Integer year) {
+        return normalize(make) + "|" + normalize(model) + "|" + (year != null ? year : "any");
+    }
+
+    /**
+     * Returns the cached image for the key, checking memory first and then the database.
+     */
+    public Optional<CachedImage> get(String key) {
+        CachedImage cached = memoryCache.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+        
+        try {
+            Optional<VehicleImageCacheEntry> entry =
+                cacheRepository.findByCacheKeyAndExpiresAtAfter(key, LocalDateTime.now());
+            if (entry.isPresent()) {
+                VehicleImageCacheEntry e = entry.get();
+                CachedImage loaded = new CachedImage(e.getImageUrl(), Boolean.TRUE.equals(e.getIsFallback()), e.getExpiresAt());
+                memoryCache.put(key, loaded);
+                databaseHits.increment();
+                return Optional.of(loaded);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read image cache entry {}: {}", key, e.getMessage());
+        }
+        
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a scrape result. Fallback results expire sooner so real images are retried.
+     */
+    public void put(String key, String imageUrl, boolean fallback) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(fallback ? negativeTtl : positiveTtl);
+        memoryCache.put(key, new CachedImage(imageUrl, fallback, expiresAt));
+        
+        try {
+            cacheRepository.save(new VehicleImageCacheEntry(key, imageUrl, fallback, now, expiresAt));
+        } catch (Exception e) {
+            logger.warn("Failed to persist image cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${vehicle.image.cache.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int removed = cacheRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            logger.info("Purged {} expired vehicle image cache entries", removed);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A cached scrape result; {@code fallback} marks a negative result.
+     */
+    public record CachedImage(String imageUrl, boolean fallback, LocalDateTime expiresAt) {}
+
+    private static class CachedImageExpiry implements Expiry<String, CachedImage> {
+        
+        @Override
+        public long expireAfterCreate(String key, CachedImage value, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), value.expiresAt()).toNanos());
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, CachedImage value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, CachedImage value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
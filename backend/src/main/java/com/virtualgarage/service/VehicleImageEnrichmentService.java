@@ -0,0 +1,100 @@
+package com.virtualgarage.service;
+
+import com.virtualgarage.config.TaskExecutors;
+import com.virtualgarage.entity.Vehicle;
+import com.virtualgarage.repository.VehicleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background image enrichment for vehicles created without a picture.
+ * Jobs run on a small bounded pool so slow Unsplash calls never hold a request
+ * thread or a database connection while they wait.
+ */
+@Service
+public class VehicleImageEnrichmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleImageEnrichmentService.class);
+
+    private final VehicleImageScrapingService imageScrapingService;
+    private final VehicleRepository vehicleRepository;
+    private final ThreadPoolExecutor executor;
+
+    public VehicleImageEnrichmentService(VehicleImageScrapingService imageScrapingService,
+                                         VehicleRepository vehicleRepository,
+                                         TaskExecutors taskExecutors,
+                                         @Value("${vehicle.image.enrichment.pool-size:2}") int poolSize,
+                                         @Value("${vehicle.image.enrichment.queue-capacity:10000}") int queueCapacity) {
+        this.imageScrapingService = imageScrapingService;
+        this.vehicleRepository = vehicleRepository;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                taskExecutors.threadFactory("image-enrichment-"));
+    }
+
+    /**
+     * Queues an enrichment job. When called inside a transaction the job is only
+     * submitted after commit, so the worker always sees the inserted row.
+     */
+    public void enqueue(Long vehicleId, String make, String model, Integer year) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(vehicleId, make, model, year);
+                }
+            });
+        } else {
+            submit(vehicleId, make, model, year);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void submit(Long vehicleId, String make, String model, Integer year) {
+        try {
+            executor.execute(() -> enrich(vehicleId, make, model, year));
+        } catch (RejectedExecutionException e) {
+            // Left as PENDING; the vehicle keeps a null image until it is re-queued
+            logger.warn("Image enrichment queue full, skipping vehicle {}", vehicleId);
+        }
+    }
+
+    private void enrich(Long vehicleId, String make, String model, Integer year) {
+        try {
+            Optional<String> imageUrl = imageScrapingService.scrapeVehicleImage(make, model, year);
+            if (imageUrl.isPresent()) {
+                vehicleRepository.completeImageEnrichment(vehicleId, imageUrl.get(), Vehicle.ImageEnrichmentStatus.COMPLETED);
+                logger.info("Enriched vehicle {} with image {}", vehicleId, imageUrl.get());
+            } else {
+                vehicleRepository.completeImageEnrichment(vehicleId, null, Vehicle.ImageEnrichmentStatus.FAILED);
+                logger.warn("No image found for vehicle {} ({} {} {})", vehicleId, year, make, model);
+            }
+        } catch (Exception e) {
+            logger.error("Image enrichment failed for vehicle {}: {}", vehicleId, e.getMessage());
+            try {
+                vehicleRepository.completeImageEnrichment(vehicleId, null, Vehicle.ImageEnrichmentStatus.FAILED);
+            } catch (Exception statusError) {
+                logger.error("Could not record enrichment failure for vehicle {}: {}", vehicleId, statusError.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
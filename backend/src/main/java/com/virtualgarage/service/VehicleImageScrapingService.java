@@ -2,11 +2,20 @@ package com.virtualgarage.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.config.TaskExecutors;
+import jakarta.annotation.PreDestroy;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,10 +24,17 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for scraping vehicle images from various sources when user doesn't provide one.
@@ -31,13 +47,17 @@ public class VehicleImageScrapingService {
     
     private final ObjectMapper objectMapper;
     private final CloseableHttpClient httpClient;
+    private final VehicleImageCache imageCache;
+    private final ExecutorService searchExecutor;
+    private final TokenBucketRateLimiter unsplashRateLimiter;
+    private final Duration stageTimeout;
     
     // Default Unsplash Access Key (demo/development - replace with your own)
     @Value("${vehicle.image.unsplash.access-key:}")
     private String unsplashAccessKey;
     
     // Fallback image sources - more specific categories
-    private static final List<String> FALLBACK_IMAGES = Arrays.asList(
+    private static final List<String> FALLBACK_IMAGES = List.of(
         "https://images.unsplash.com/photo-1494905998402-395d579af36f?w=800&h=600&fit=crop&crop=center", // 0 - Classic Muscle Car
         "https://images.unsplash.com/photo-1555215695-3004980ad54e?w=800&h=600&fit=crop&crop=center", // 1 - Modern Car
         "https://images.unsplash.com/photo-1503376780353-7e6692767b70?w=800&h=600&fit=crop&crop=center", // 2 - Sports Car
@@ -50,130 +70,192 @@ public class VehicleImageScrapingService {
         "https://images.unsplash.com/photo-1542282088-fe8426682b8f?w=800&h=600&fit=crop&crop=center"  // 9 - Classic Truck
     );
 
-    public VehicleImageScrapingService(ObjectMapper objectMapper) {
+    public VehicleImageScrapingService(ObjectMapper objectMapper,
+                                       VehicleImageCache imageCache,
+                                       TaskExecutors taskExecutors,
+                                       @Value("${vehicle.image.scraping.timeout:30000}") long timeoutMs,
+                                       @Value("${vehicle.image.scraping.concurrency:8}") int concurrency,
+                                       @Value("${vehicle.image.unsplash.requests-per-hour:50}") long requestsPerHour,
+                                       @Value("${vehicle.image.unsplash.burst:10}") long burst) {
         this.objectMapper = objectMapper;
-        this.httpClient = HttpClients.createDefault();
+        this.imageCache = imageCache;
+        this.stageTimeout = Duration.ofMillis(timeoutMs);
+        this.unsplashRateLimiter = new TokenBucketRateLimiter(burst, requestsPerHour, Duration.ofHours(1));
+        
+        Timeout timeout = Timeout.ofMilliseconds(timeoutMs);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(concurrency * 2)
+            .setMaxConnPerRoute(concurrency)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .build())
+            .build();
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout)
+                .setResponseTimeout(timeout)
+                .build())
+            .evictIdleConnections(TimeValue.ofMinutes(1))
+            .build();
+        this.searchExecutor = taskExecutors.newIoExecutor("image-scrape-", concurrency);
+    }
+
+    /**
+     * Outcome of an image lookup. {@code rateLimited} means the Unsplash quota ran out before
+     * the searches could finish, which says nothing about whether an image exists; the image,
+     * if any, is then an uncached fallback.
+     */
+    public record SearchResult(Optional<String> imageUrl, boolean rateLimited) {
+        static final SearchResult NOT_FOUND = new SearchResult(Optional.empty(), false);
+        static final SearchResult RATE_LIMITED = new SearchResult(Optional.empty(), true);
+        
+        static SearchResult found(String imageUrl) {
+            return new SearchResult(Optional.of(imageUrl), false);
+        }
     }
 
     /**
      * Scrapes a vehicle image based on make, model, and year.
-     * Tries multiple sources in order of preference.
+     * The specific Unsplash search runs first; generic searches are only tried, concurrently,
+     * when it finds nothing. Results, including fallbacks, are cached per make/model/year,
+     * except when the Unsplash quota ran out before the searches could finish.
      */
     public Optional<String> scrapeVehicleImage(String make, String model, Integer year) {
+        return scrapeVehicleImage(make, model, year, false).imageUrl();
+    }
+
+    /**
+     * Same as {@link #scrapeVehicleImage(String, String, Integer)}, but when
+     * {@code retryFallback} is set a cached fallback result is ignored and the
+     * searches are run again. The result tells callers that must not treat a
+     * rate-limited lookup as a miss which one it was.
+     */
+    public SearchResult scrapeVehicleImage(String make, String model, Integer year, boolean retryFallback) {
+        String cacheKey = VehicleImageCache.keyFor(make, model, year);
+        Optional<VehicleImageCache.CachedImage> cachedImage = imageCache.get(cacheKey);
+        if (cachedImage.isPresent() && !(retryFallback && cachedImage.get().fallback())) {
+            logger.debug("Using cached image for {} {} {}", year, make, model);
+            return SearchResult.found(cachedImage.get().imageUrl());
+        }
+        
         logger.info("Scraping vehicle image for: {} {} {}", year, make, model);
         
         try {
-            // Strategy 1: Try Unsplash API with specific search
-            Optional<String> unsplashImage = scrapeFromUnsplash(make, model, year);
-            if (unsplashImage.isPresent()) {
+            // Strategies 1 and 2: specific, then generic Unsplash searches
+            SearchResult unsplashImage = searchUnsplash(make, model, year);
+            if (unsplashImage.imageUrl().isPresent()) {
                 logger.info("Found image from Unsplash for {} {} {}", year, make, model);
+                imageCache.put(cacheKey, unsplashImage.imageUrl().get(), false);
                 return unsplashImage;
             }
             
-            // Strategy 2: Try generic automotive search on Unsplash
-            Optional<String> genericImage = scrapeGenericVehicleImage(make, model);
-            if (genericImage.isPresent()) {
-                logger.info("Found generic image for {} {}", make, model);
-                return genericImage;
-            }
-            
             // Strategy 3: Return type-based fallback image
             Optional<String> fallbackImage = getFallbackImageByVehicleType(make, model);
+            if (unsplashImage.rateLimited()) {
+                // Not a real miss; leave it uncached so a later scrape searches again
+                logger.info("Unsplash rate limit reached, using uncached fallback image for {} {} {}", year, make, model);
+                return new SearchResult(fallbackImage, true);
+            }
             logger.info("Using fallback image for {} {} {}", year, make, model);
-            return fallbackImage;
+            fallbackImage.ifPresent(url -> imageCache.put(cacheKey, url, true));
+            return new SearchResult(fallbackImage, false);
             
         } catch (Exception e) {
             logger.error("Error scraping vehicle image for {} {} {}: {}", year, make, model, e.getMessage());
-            return getFallbackImageByVehicleType(make, model);
+            return new SearchResult(getFallbackImageByVehicleType(make, model), false);
         }
     }
 
     /**
-     * Scrapes image from Unsplash API with specific vehicle search
+     * Tries the specific search first, so a vehicle it finds costs a single rate limit token.
+     * On a miss the generic searches are sent at once, as many as there are tokens free right
+     * now, and the first one to find an image wins; the rest are aborted. The whole lookup is
+     * bounded by the stage timeout.
      */
-    private Optional<String> scrapeFromUnsplash(String make, String model, Integer year) {
+    private SearchResult searchUnsplash(String make, String model, Integer year) throws InterruptedException {
         if (unsplashAccessKey == null || unsplashAccessKey.trim().isEmpty()) {
             logger.debug("Unsplash access key not configured, skipping API search");
-            return Optional.empty();
+            return SearchResult.NOT_FOUND;
         }
         
-        try {
-            // Create search query
-            String query = String.format("%d %s %s car", year != null ? year : 2020, make, model);
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String url = String.format("https://api.unsplash.com/search/photos?query=%s&per_page=5&orientation=landscape", encodedQuery);
-            
-            HttpGet request = new HttpGet(url);
-            request.addHeader("Authorization", "Client-ID " + unsplashAccessKey);
-            request.addHeader("User-Agent", "Virtual-Garage/1.0");
-            
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                if (response.getCode() == 200) {
-                    String responseBody = EntityUtils.toString(response.getEntity());
-                    JsonNode jsonNode = objectMapper.readTree(responseBody);
-                    JsonNode results = jsonNode.get("results");
-                    
-                    if (results != null && results.isArray() && results.size() > 0) {
-                        JsonNode firstResult = results.get(0);
-                        JsonNode urls = firstResult.get("urls");
-                        if (urls != null) {
-                            String imageUrl = urls.get("regular").asText();
-                            return Optional.of(imageUrl);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.warn("Failed to fetch from Unsplash API: {}", e.getMessage());
+        long deadline = System.nanoTime() + stageTimeout.toNanos();
+        
+        // The primary search waits for a token; it is the one most likely to find the right car
+        if (!unsplashRateLimiter.tryAcquire(stageTimeout)) {
+            return SearchResult.RATE_LIMITED;
+        }
+        String specificQuery = String.format("%d %s %s car", year != null ? year : 2020, make, model);
+        Optional<String> result = searchUnsplash(unsplashRequest(specificQuery, 5), specificQuery);
+        if (result.isPresent()) {
+            return SearchResult.found(result.get());
         }
         
-        return Optional.empty();
-    }
-
-    /**
-     * Scrapes generic vehicle image from Unsplash using simpler search
-     */
-    private Optional<String> scrapeGenericVehicleImage(String make, String model) {
-        try {
-            // Try with just make and model
-            List<String> searchTerms = Arrays.asList(
+        // Generic searches only take a token that is free right now
+        List<HttpGet> requests = new ArrayList<>();
+        List<Future<Optional<String>>> searches = new ArrayList<>();
+        CompletionService<Optional<String>> completed = new ExecutorCompletionService<>(searchExecutor);
+        boolean rateLimited = false;
+        for (String searchTerm : Arrays.asList(
                 make + " " + model + " car",
                 make + " car",
                 model + " car",
                 "luxury car",
-                "sports car"
-            );
-            
-            for (String searchTerm : searchTerms) {
-                Optional<String> result = searchUnsplashByTerm(searchTerm);
+                "sports car")) {
+            if (!unsplashRateLimiter.tryAcquire()) {
+                logger.debug("Unsplash rate limit reached, skipping search for '{}'", searchTerm);
+                rateLimited = true;
+                break;
+            }
+            HttpGet request = unsplashRequest(searchTerm, 3);
+            requests.add(request);
+            searches.add(completed.submit(() -> searchUnsplash(request, searchTerm)));
+        }
+        
+        try {
+            for (int i = 0; i < searches.size(); i++) {
+                long remaining = deadline - System.nanoTime();
+                Future<Optional<String>> search = remaining > 0 ? completed.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (search == null) {
+                    logger.warn("Unsplash searches for {} {} {} timed out", year, make, model);
+                    return SearchResult.NOT_FOUND;
+                }
+                try {
+                    result = search.get();
+                } catch (ExecutionException e) {
+                    logger.debug("Unsplash search failed: {}", e.getCause().getMessage());
+                    continue;
+                }
                 if (result.isPresent()) {
-                    return result;
+                    return SearchResult.found(result.get());
                 }
             }
-        } catch (Exception e) {
-            logger.warn("Failed to fetch generic vehicle image: {}", e.getMessage());
+        } finally {
+            // Aborting the request closes its connection, which also ends a blocked read
+            requests.forEach(HttpGet::cancel);
+            searches.forEach(search -> search.cancel(true));
         }
         
-        return Optional.empty();
+        return rateLimited ? SearchResult.RATE_LIMITED : SearchResult.NOT_FOUND;
+    }
+
+    private HttpGet unsplashRequest(String searchTerm, int perPage) {
+        String encodedQuery = URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
+        String url = String.format("https://api.unsplash.com/search/photos?query=%s&per_page=%d&orientation=landscape", encodedQuery, perPage);
+        
+        HttpGet request = new HttpGet(url);
+        request.addHeader("Authorization", "Client-ID " + unsplashAccessKey);
+        request.addHeader("User-Agent", "Virtual-Garage/1.0");
+        return request;
     }
 
     /**
-     * Searches Unsplash by specific term
+     * Runs one Unsplash search; the caller has already taken a rate limit token.
      */
-    private Optional<String> searchUnsplashByTerm(String searchTerm) {
-        if (unsplashAccessKey == null || unsplashAccessKey.trim().isEmpty()) {
-            return Optional.empty();
-        }
-        
+    private Optional<String> searchUnsplash(HttpGet request, String searchTerm) {
         try {
-            String encodedQuery = URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
-            String url = String.format("https://api.unsplash.com/search/photos?query=%s&per_page=3&orientation=landscape", encodedQuery);
-            
-            HttpGet request = new HttpGet(url);
-            request.addHeader("Authorization", "Client-ID " + unsplashAccessKey);
-            request.addHeader("User-Agent", "Virtual-Garage/1.0");
-            
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
+            return httpClient.execute(request, response -> {
                 if (response.getCode() == 200) {
                     String responseBody = EntityUtils.toString(response.getEntity());
                     JsonNode jsonNode = objectMapper.readTree(responseBody);
@@ -182,13 +264,16 @@ public class VehicleImageScrapingService {
                     if (results != null && results.isArray() && results.size() > 0) {
                         JsonNode firstResult = results.get(0);
                         JsonNode urls = firstResult.get("urls");
-                        if (urls != null) {
-                            String imageUrl = urls.get("regular").asText();
-                            return Optional.of(imageUrl);
+                        if (urls != null && urls.hasNonNull("regular")) {
+                            return Optional.of(urls.get("regular").asText());
                         }
                     }
+                } else {
+                    EntityUtils.consume(response.getEntity());
+                    logger.debug("Unsplash search for '{}' returned {}", searchTerm, response.getCode());
                 }
-            }
+                return Optional.<String>empty();
+            });
         } catch (Exception e) {
             logger.debug("Failed to search Unsplash for term '{}': {}", searchTerm, e.getMessage());
         }
@@ -338,6 +423,20 @@ public class VehicleImageScrapingService {
         return roadsterModels.stream().anyMatch(model::contains);
     }
 
+    /**
+     * Returns the generic images used when no real image could be found.
+     */
+    public static List<String> getFallbackImages() {
+        return FALLBACK_IMAGES;
+    }
+
+    /**
+     * Whether the URL is one of the generic fallback images
+     */
+    public static boolean isFallbackImage(String imageUrl) {
+        return imageUrl != null && FALLBACK_IMAGES.contains(imageUrl);
+    }
+
     /**
      * Validates if a URL returns a valid image
      */
@@ -347,18 +446,28 @@ public class VehicleImageScrapingService {
         }
         
         try {
-            HttpGet request = new HttpGet(imageUrl);
+            HttpHead request = new HttpHead(imageUrl);
             request.addHeader("User-Agent", "Virtual-Garage/1.0");
             
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String contentType = response.getFirstHeader("Content-Type").getValue();
-                return response.getCode() == 200 && 
-                       contentType != null && 
-                       contentType.startsWith("image/");
-            }
+            return httpClient.execute(request, response -> {
+                Header contentType = response.getFirstHeader("Content-Type");
+                return response.getCode() == 200 &&
+                       contentType != null &&
+                       contentType.getValue().startsWith("image/");
+            });
         } catch (Exception e) {
             logger.debug("Invalid image URL: {}", imageUrl);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.debug("Error closing image scraping HTTP client: {}", e.getMessage());
+        }
+    }
+}
@@ -1,85 +1,131 @@
 package com.virtualgarage.service;
 
+import com.virtualgarage.config.KafkaEventPublisher;
+import com.virtualgarage.dto.VehicleCursorPage;
 import com.virtualgarage.dto.VehicleDTO;
 import com.virtualgarage.entity.Vehicle;
+import com.virtualgarage.event.VehicleChangeEvent;
+import com.virtualgarage.event.VehicleViewedEvent;
 import com.virtualgarage.repository.VehicleRepository;
 import com.virtualgarage.repository.VehicleImageRepository;
 import com.virtualgarage.repository.MaintenanceRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class VehicleService {
 
     private static final Logger logger = LoggerFactory.getLogger(VehicleService.class);
+    
+    /**
+     * Sort property that selects relevance-ranked search results.
+     */
+    public static final String RELEVANCE_SORT = "relevance";
+    
+    private static final int STREAM_CHUNK_SIZE = 500;
+    
+    /**
+     * Largest slice a cursor endpoint returns; bigger requests are rejected, not clamped.
+     */
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     private final VehicleRepository vehicleRepository;
     private final VehicleImageRepository vehicleImageRepository;
     private final MaintenanceRecordRepository maintenanceRecordRepository;
-    private final VehicleImageScrapingService imageScrapingService;
+    private final VehicleImageEnrichmentService imageEnrichmentService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${virtual-garage.search.ranked-enabled:false}")
+    private boolean rankedSearchEnabled;
 
     @Autowired
     public VehicleService(VehicleRepository vehicleRepository,
                          VehicleImageRepository vehicleImageRepository,
                          MaintenanceRecordRepository maintenanceRecordRepository,
-                         VehicleImageScrapingService imageScrapingService) {
+                         VehicleImageEnrichmentService imageEnrichmentService,
+                         ApplicationEventPublisher eventPublisher) {
         this.vehicleRepository = vehicleRepository;
         this.vehicleImageRepository = vehicleImageRepository;
         this.maintenanceRecordRepository = maintenanceRecordRepository;
-        this.imageScrapingService = imageScrapingService;
+        this.imageEnrichmentService = imageEnrichmentService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
     public Page<VehicleDTO> getAllVehicles(Pageable pageable) {
         logger.debug("Fetching all vehicles with pagination: {}", pageable);
         Page<Vehicle> vehicles = vehicleRepository.findByIsActiveTrue(pageable);
-        return vehicles.map(this::convertToDTO);
+        return convertToDTOPage(vehicles);
     }
 
     @Transactional(readOnly = true)
     public Optional<VehicleDTO> getVehicleById(Long id) {
         logger.debug("Fetching vehicle by id: {}", id);
         Optional<Vehicle> vehicle = vehicleRepository.findByIdAndIsActiveTrue(id);
+        vehicle.ifPresent(v -> eventPublisher.publishEvent(new VehicleViewedEvent(v.getId(), eventData(v))));
         return vehicle.map(this::convertToDTO);
     }
 
     @Transactional(readOnly = true)
     public Page<VehicleDTO> searchVehicles(String searchTerm, Pageable pageable) {
         logger.debug("Searching vehicles with term: {}", searchTerm);
+        boolean byRelevance = isRelevanceSort(pageable);
+        Pageable effectivePageable = byRelevance ? withoutRelevanceSort(pageable) : pageable;
+        
         Page<Vehicle> vehicles;
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            vehicles = vehicleRepository.findByIsActiveTrue(pageable);
+            vehicles = vehicleRepository.findByIsActiveTrue(effectivePageable);
+        } else if (byRelevance && rankedSearchEnabled) {
+            vehicles = vehicleRepository.findBySearchTermRanked(searchTerm.trim(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         } else {
-            vehicles = vehicleRepository.findBySearchTerm(searchTerm.trim(), pageable);
+            vehicles = vehicleRepository.findBySearchTerm(searchTerm.trim(), effectivePageable);
         }
-        return vehicles.map(this::convertToDTO);
+        return convertToDTOPage(vehicles);
     }
 
     @Transactional(readOnly = true)
     public Page<VehicleDTO> getVehiclesByType(String type, Pageable pageable) {
         logger.debug("Fetching vehicles by type: {}", type);
         Page<Vehicle> vehicles = vehicleRepository.findByTypeIgnoreCaseAndIsActiveTrue(type, pageable);
-        return vehicles.map(this::convertToDTO);
+        return convertToDTOPage(vehicles);
     }
 
     @Transactional(readOnly = true)
     public Page<VehicleDTO> getVehiclesByTag(String tag, Pageable pageable) {
         logger.debug("Fetching vehicles by tag: {}", tag);
         Page<Vehicle> vehicles = vehicleRepository.findByTag(tag, pageable);
-        return vehicles.map(this::convertToDTO);
+        return convertToDTOPage(vehicles);
     }
 
     @Transactional(readOnly = true)
@@ -90,7 +136,73 @@ public class VehicleService {
         logger.debug("Fetching vehicles with filters - search: {}, type: {}, make: {}", searchTerm, type, make);
         Page<Vehicle> vehicles = vehicleRepository.findWithFilters(
             searchTerm, type, make, startYear, endYear, minValue, maxValue, pageable);
-        return vehicles.map(this::convertToDTO);
+        return convertToDTOPage(vehicles);
+    }
+
+    @Transactional(readOnly = true)
+    public VehicleCursorPage getAllVehicles(String cursor, int size) {
+        logger.debug("Fetching vehicles after cursor: {}", cursor);
+        VehicleCursor position = VehicleCursor.decode(cursor);
+        Slice<Vehicle> vehicles = vehicleRepository.findActiveAfterCursor(
+            position.getCreatedAt(), position.getId(), cursorSlice(size));
+        return convertToCursorPage(vehicles);
+    }
+
+    @Transactional(readOnly = true)
+    public VehicleCursorPage searchVehicles(String searchTerm, String cursor, int size) {
+        logger.debug("Searching vehicles with term: {} after cursor: {}", searchTerm, cursor);
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return getAllVehicles(cursor, size);
+        }
+        VehicleCursor position = VehicleCursor.decode(cursor);
+        Slice<Vehicle> vehicles = vehicleRepository.findBySearchTermAfterCursor(
+            searchTerm.trim(), position.getCreatedAt(), position.getId(), cursorSlice(size));
+        return convertToCursorPage(vehicles);
+    }
+
+    @Transactional(readOnly = true)
+    public VehicleCursorPage getVehiclesWithFilters(String searchTerm, String type, String make,
+                                                    Integer startYear, Integer endYear,
+                                                    BigDecimal minValue, BigDecimal maxValue,
+                                                    String cursor, int size) {
+        logger.debug("Fetching vehicles with filters after cursor: {} - search: {}, type: {}, make: {}",
+            cursor, searchTerm, type, make);
+        VehicleCursor position = VehicleCursor.decode(cursor);
+        Slice<Vehicle> vehicles = vehicleRepository.findWithFiltersAfterCursor(
+            searchTerm, type, make, startYear, endYear, minValue, maxValue,
+            position.getCreatedAt(), position.getId(), cursorSlice(size));
+        return convertToCursorPage(vehicles);
+    }
+
+    private static PageRequest cursorSlice(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Streams every active vehicle from a database cursor and hands them to the consumer
+     * in chunks. The persistence context is cleared after each chunk, so memory use stays
+     * flat regardless of fleet size. Tags and counts are batch-loaded per chunk.
+     */
+    @Transactional(readOnly = true)
+    public void streamVehicles(Consumer<List<VehicleDTO>> chunkConsumer) {
+        logger.debug("Streaming all active vehicles");
+        
+        try (Stream<Vehicle> vehicles = vehicleRepository.streamActiveVehicles()) {
+            List<Vehicle> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<Vehicle> iterator = vehicles.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    flushChunk(chunk, chunkConsumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, chunkConsumer);
+            }
+        }
     }
 
     public VehicleDTO createVehicle(VehicleDTO vehicleDTO) {
@@ -101,39 +213,66 @@ public class VehicleService {
             throw new IllegalArgumentException("Vehicle with VIN " + vehicleDTO.getVinNumber() + " already exists");
         }
         
-        // Auto-scrape vehicle image if none provided
-        if (vehicleDTO.getPrimaryImageUrl() == null || vehicleDTO.getPrimaryImageUrl().trim().isEmpty()) {
-            logger.debug("No image provided, attempting to scrape for: {} {} {}", 
-                vehicleDTO.getYear(), vehicleDTO.getMake(), vehicleDTO.getModel());
-            
-            try {
-                var scrapedImage = imageScrapingService.scrapeVehicleImage(
-                    vehicleDTO.getMake(), 
-                    vehicleDTO.getModel(), 
-                    vehicleDTO.getYear()
-                );
-                
-                if (scrapedImage.isPresent()) {
-                    vehicleDTO.setPrimaryImageUrl(scrapedImage.get());
-                    logger.info("Successfully scraped image for {} {} {}: {}", 
-                        vehicleDTO.getYear(), vehicleDTO.getMake(), vehicleDTO.getModel(), scrapedImage.get());
-                } else {
-                    logger.warn("Failed to scrape image for {} {} {}", 
-                        vehicleDTO.getYear(), vehicleDTO.getMake(), vehicleDTO.getModel());
-                }
-            } catch (Exception e) {
-                logger.error("Error during image scraping for {} {} {}: {}", 
-                    vehicleDTO.getYear(), vehicleDTO.getMake(), vehicleDTO.getModel(), e.getMessage());
-            }
-        }
-        
         Vehicle vehicle = convertToEntity(vehicleDTO);
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
         
+        // Image scraping runs in the background once this transaction commits
+        if (savedVehicle.getImageEnrichmentStatus() == Vehicle.ImageEnrichmentStatus.PENDING) {
+            imageEnrichmentService.enqueue(savedVehicle.getId(), savedVehicle.getMake(),
+                savedVehicle.getModel(), savedVehicle.getYear());
+        }
+        
+        eventPublisher.publishEvent(new VehicleChangeEvent(KafkaEventPublisher.VEHICLE_CREATED, savedVehicle.getId(),
+            eventData(savedVehicle)));
         logger.info("Created vehicle with id: {}", savedVehicle.getId());
         return convertToDTO(savedVehicle);
     }
 
+    /**
+     * Inserts one chunk of pre-validated vehicles in a single transaction.
+     * VINs are checked with one IN query, inserts go out as JDBC batches, and image
+     * scraping is queued for after commit instead of running inline.
+     *
+     * @return one entry per input row: null if created, otherwise the rejection reason
+     */
+    public List<String> importVehicles(List<VehicleDTO> vehicleDTOs) {
+        logger.debug("Importing chunk of {} vehicles", vehicleDTOs.size());
+        
+        List<String> vinNumbers = vehicleDTOs.stream()
+            .map(VehicleDTO::getVinNumber)
+            .filter(vin -> vin != null)
+            .collect(Collectors.toList());
+        Set<String> existingVins = vinNumbers.isEmpty()
+            ? Set.of()
+            : new HashSet<>(vehicleRepository.findExistingVinNumbers(vinNumbers));
+        
+        List<String> errors = new ArrayList<>(vehicleDTOs.size());
+        List<Vehicle> vehicles = new ArrayList<>(vehicleDTOs.size());
+        for (VehicleDTO vehicleDTO : vehicleDTOs) {
+            if (vehicleDTO.getVinNumber() != null && existingVins.contains(vehicleDTO.getVinNumber())) {
+                errors.add("Vehicle with VIN " + vehicleDTO.getVinNumber() + " already exists");
+            } else {
+                errors.add(null);
+                vehicles.add(convertToEntity(vehicleDTO));
+            }
+        }
+        
+        vehicleRepository.saveAll(vehicles);
+        entityManager.flush();
+        
+        for (Vehicle vehicle : vehicles) {
+            if (vehicle.getImageEnrichmentStatus() == Vehicle.ImageEnrichmentStatus.PENDING) {
+                imageEnrichmentService.enqueue(vehicle.getId(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear());
+            }
+            eventPublisher.publishEvent(new VehicleChangeEvent(KafkaEventPublisher.VEHICLE_CREATED, vehicle.getId(),
+                eventData(vehicle)));
+        }
+        entityManager.clear();
+        
+        logger.info("Imported {} of {} vehicles in chunk", vehicles.size(), vehicleDTOs.size());
+        return errors;
+    }
+
     public VehicleDTO updateVehicle(Long id, VehicleDTO vehicleDTO) {
         logger.debug("Updating vehicle with id: {}", id);
         
@@ -151,6 +290,8 @@ public class VehicleService {
         updateEntityFromDTO(existingVehicle, vehicleDTO);
         Vehicle savedVehicle = vehicleRepository.save(existingVehicle);
         
+        eventPublisher.publishEvent(new VehicleChangeEvent(KafkaEventPublisher.VEHICLE_UPDATED, savedVehicle.getId(),
+            eventData(savedVehicle)));
         logger.info("Updated vehicle with id: {}", savedVehicle.getId());
         return convertToDTO(savedVehicle);
     }
@@ -165,29 +306,10 @@ public class VehicleService {
         vehicle.setIsActive(false);
         vehicleRepository.save(vehicle);
         
+        eventPublisher.publishEvent(new VehicleChangeEvent(KafkaEventPublisher.VEHICLE_DELETED, id));
         logger.info("Soft deleted vehicle with id: {}", id);
     }
 
-    @Transactional(readOnly = true)
-    public Map<String, Object> getDashboardStats() {
-        logger.debug("Fetching dashboard statistics");
-        
-        LocalDateTime monthAgo = LocalDateTime.now().minusMonths(1);
-        long totalVehicles = vehicleRepository.countActiveVehicles();
-        BigDecimal totalValue = vehicleRepository.getTotalValue();
-        BigDecimal averageValue = vehicleRepository.getAverageValue();
-        
-        if (totalValue == null) totalValue = BigDecimal.ZERO;
-        if (averageValue == null) averageValue = BigDecimal.ZERO;
-        
-        return Map.of(
-            "total_vehicles", totalVehicles,
-            "total_value", totalValue,
-            "average_value", averageValue,
-            "new_this_month", vehicleRepository.findByCreatedAtBetweenAndIsActiveTrue(monthAgo, LocalDateTime.now(), Pageable.unpaged()).getTotalElements()
-        );
-    }
-
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getVehicleStatsByType() {
         logger.debug("Fetching vehicle statistics by type");
@@ -212,7 +334,89 @@ public class VehicleService {
             .collect(Collectors.toList());
     }
 
+    private boolean isRelevanceSort(Pageable pageable) {
+        return pageable.isPaged() && pageable.getSort().getOrderFor(RELEVANCE_SORT) != null;
+    }
+
+    /**
+     * Falls back to newest-first ordering where ranked search is unavailable
+     * (H2 profiles) or the query has no search term to rank against.
+     */
+    private Pageable withoutRelevanceSort(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    /**
+     * Vehicle summary carried on published events (values may be null).
+     */
+    private static Map<String, Object> eventData(Vehicle vehicle) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("make", vehicle.getMake());
+        data.put("model", vehicle.getModel());
+        data.put("year", vehicle.getYear());
+        data.put("type", vehicle.getType());
+        return data;
+    }
+
     private VehicleDTO convertToDTO(Vehicle vehicle) {
+        return convertToDTO(vehicle,
+            vehicleImageRepository.countByVehicleId(vehicle.getId()),
+            maintenanceRecordRepository.countByVehicleId(vehicle.getId()));
+    }
+
+    /**
+     * Converts a page of vehicles using one grouped count query for images and one
+     * for maintenance records, so the query count does not grow with the page size.
+     */
+    private Page<VehicleDTO> convertToDTOPage(Page<Vehicle> vehicles) {
+        return new PageImpl<>(convertToDTOs(vehicles.getContent()), vehicles.getPageable(), vehicles.getTotalElements());
+    }
+
+    private void flushChunk(List<Vehicle> chunk, Consumer<List<VehicleDTO>> chunkConsumer) {
+        chunkConsumer.accept(convertToDTOs(chunk));
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private VehicleCursorPage convertToCursorPage(Slice<Vehicle> vehicles) {
+        List<Vehicle> content = vehicles.getContent();
+        String nextCursor = null;
+        if (vehicles.hasNext() && !content.isEmpty()) {
+            Vehicle last = content.get(content.size() - 1);
+            nextCursor = new VehicleCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new VehicleCursorPage(convertToDTOs(content), nextCursor, vehicles.hasNext(), vehicles.getSize());
+    }
+
+    private List<VehicleDTO> convertToDTOs(List<Vehicle> vehicles) {
+        if (vehicles.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Long> vehicleIds = vehicles.stream()
+            .map(Vehicle::getId)
+            .collect(Collectors.toList());
+        
+        Map<Long, Long> imageCounts = toCountMap(vehicleImageRepository.countByVehicleIds(vehicleIds));
+        Map<Long, Long> maintenanceCounts = toCountMap(maintenanceRecordRepository.countByVehicleIds(vehicleIds));
+        
+        return vehicles.stream()
+            .map(vehicle -> convertToDTO(vehicle,
+                imageCounts.getOrDefault(vehicle.getId(), 0L),
+                maintenanceCounts.getOrDefault(vehicle.getId(), 0L)))
+            .collect(Collectors.toList());
+    }
+
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private VehicleDTO convertToDTO(Vehicle vehicle, long imageCount, long maintenanceCount) {
         VehicleDTO dto = new VehicleDTO();
         dto.setId(vehicle.getId());
         dto.setName(vehicle.getName());
@@ -235,6 +439,8 @@ public class VehicleService {
         dto.setVinNumber(vehicle.getVinNumber());
         dto.setLicensePlate(vehicle.getLicensePlate());
         dto.setPrimaryImageUrl(vehicle.getPrimaryImageUrl());
+        dto.setImageEnrichmentStatus(vehicle.getImageEnrichmentStatus() != null ?
+            vehicle.getImageEnrichmentStatus().name() : null);
         dto.setDescription(vehicle.getDescription());
         dto.setNotes(vehicle.getNotes());
         dto.setTags(vehicle.getTags());
@@ -242,8 +448,8 @@ public class VehicleService {
         dto.setUpdatedAt(vehicle.getUpdatedAt());
         
         // Add counts
-        dto.setImageCount((int) vehicleImageRepository.countByVehicleId(vehicle.getId()));
-        dto.setMaintenanceCount((int) maintenanceRecordRepository.countByVehicleId(vehicle.getId()));
+        dto.setImageCount((int) imageCount);
+        dto.setMaintenanceCount((int) maintenanceCount);
         
         return dto;
     }
@@ -251,6 +457,12 @@ public class VehicleService {
     private Vehicle convertToEntity(VehicleDTO dto) {
         Vehicle vehicle = new Vehicle();
         updateEntityFromDTO(vehicle, dto);
+        
+        // New vehicles without an image are queued for background enrichment
+        if (vehicle.getPrimaryImageUrl() == null || vehicle.getPrimaryImageUrl().trim().isEmpty()) {
+            vehicle.setPrimaryImageUrl(null);
+            vehicle.setImageEnrichmentStatus(Vehicle.ImageEnrichmentStatus.PENDING);
+        }
         return vehicle;
     }
 
@@ -0,0 +1,10 @@
+-- V004: Trigram indexes for vehicle search
+-- Serves the LOWER(col) LIKE '%term%' predicates used by search and filter queries
+-- and provides similarity() for relevance-ranked search.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_vehicle_name_trgm ON vehicles USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX idx_vehicle_make_trgm ON vehicles USING GIN (LOWER(make) gin_trgm_ops);
+CREATE INDEX idx_vehicle_model_trgm ON vehicles USING GIN (LOWER(model) gin_trgm_ops);
+CREATE INDEX idx_vehicle_type_trgm ON vehicles USING GIN (LOWER(type) gin_trgm_ops);
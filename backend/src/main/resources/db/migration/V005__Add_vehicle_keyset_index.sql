@@ -0,0 +1,3 @@
+-- V005: Index for keyset pagination over active vehicles, newest first
+
+CREATE INDEX idx_vehicle_active_created_id ON vehicles (created_at DESC, id DESC) WHERE is_active = true;
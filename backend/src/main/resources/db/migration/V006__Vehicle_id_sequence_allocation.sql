@@ -0,0 +1,5 @@
+-- V006: Pooled sequence allocation for vehicle ids
+-- Vehicle now uses a SEQUENCE generator with allocationSize = 50 instead of IDENTITY,
+-- which lets Hibernate batch inserts. The sequence increment must match the allocation size.
+
+ALTER SEQUENCE vehicles_id_seq INCREMENT BY 50;
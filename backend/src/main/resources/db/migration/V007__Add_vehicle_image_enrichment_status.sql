@@ -0,0 +1,5 @@
+-- Track background image enrichment for vehicles created without an image
+ALTER TABLE vehicles ADD COLUMN image_enrichment_status VARCHAR(20) NOT NULL DEFAULT 'NOT_REQUIRED';
+
+CREATE INDEX idx_vehicles_image_enrichment_status ON vehicles(image_enrichment_status)
+    WHERE image_enrichment_status IN ('PENDING', 'FAILED');
@@ -0,0 +1,10 @@
+-- Persistent cache of scraped vehicle images keyed by normalized make/model/year
+CREATE TABLE vehicle_image_cache (
+    cache_key VARCHAR(255) PRIMARY KEY,
+    image_url VARCHAR(500) NOT NULL,
+    is_fallback BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_vehicle_image_cache_expires ON vehicle_image_cache(expires_at);
@@ -0,0 +1,11 @@
+-- Progress checkpoints for the vehicle image backfill job so it can resume after a restart
+CREATE TABLE image_backfill_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    last_vehicle_id BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    updated_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Persistent tier of the parts search cache: parsed LLM suggestions keyed by prompt fingerprint
+CREATE TABLE parts_search_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    suggestions TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_parts_search_cache_expires ON parts_search_cache(expires_at);
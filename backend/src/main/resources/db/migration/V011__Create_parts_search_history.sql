@@ -0,0 +1,34 @@
+-- Every parts search result, written in batches after the response is sent
+CREATE SEQUENCE parts_search_history_id_seq INCREMENT BY 50;
+
+CREATE TABLE parts_search_history (
+    id BIGINT PRIMARY KEY DEFAULT nextval('parts_search_history_id_seq'),
+    vehicle_id BIGINT,
+    vehicle_make VARCHAR(100) NOT NULL,
+    vehicle_model VARCHAR(100) NOT NULL,
+    vehicle_year INTEGER NOT NULL,
+    vehicle_signature VARCHAR(255) NOT NULL,
+    query VARCHAR(500) NOT NULL,
+    normalized_query VARCHAR(500) NOT NULL,
+    llm_provider VARCHAR(50),
+    latency_ms BIGINT NOT NULL,
+    suggestion_count INTEGER NOT NULL,
+    suggestions TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_parts_search_history_created ON parts_search_history(created_at);
+CREATE INDEX idx_parts_search_history_signature ON parts_search_history(vehicle_signature, normalized_query);
+
+-- Popular queries per make/model, updated incrementally by the history writer
+CREATE TABLE parts_search_query_stats (
+    stats_key VARCHAR(64) PRIMARY KEY,
+    vehicle_make VARCHAR(100) NOT NULL,
+    vehicle_model VARCHAR(100) NOT NULL,
+    normalized_query VARCHAR(500) NOT NULL,
+    search_count BIGINT NOT NULL,
+    last_suggestions TEXT NOT NULL,
+    last_searched_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_parts_search_query_stats_vehicle ON parts_search_query_stats(vehicle_make, vehicle_model, search_count DESC);
@@ -0,0 +1,153 @@
+package com.virtualgarage.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.dto.VehicleDTO;
+import com.virtualgarage.service.VehicleService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "virtual-garage.kafka.publishing.enabled=true"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = "vehicle-events")
+class KafkaEventPublisherTest {
+
+    private static final String TOPIC = "vehicle-events";
+    private static final TypeReference<Map<String, Object>> EVENT = new TypeReference<>() {};
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void subscribe() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("vehicle-events-" + UUID.randomUUID(), "true", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void close() {
+        consumer.close();
+    }
+
+    @Test
+    void publishesCreateAfterCommit() {
+        VehicleDTO created = vehicleService.createVehicle(vehicle());
+
+        Map<String, Object> event = awaitEvent(KafkaEventPublisher.VEHICLE_CREATED, created.getId(), Duration.ofSeconds(10))
+                .orElseThrow();
+        assertThat(event).containsEntry("source", "virtual-garage-api");
+        assertThat(event.get("data")).isInstanceOf(Map.class);
+    }
+
+    @Test
+    void publishesUpdateAfterCommit() {
+        VehicleDTO created = vehicleService.createVehicle(vehicle());
+        created.setColor("Red");
+
+        vehicleService.updateVehicle(created.getId(), created);
+
+        assertThat(awaitEvent(KafkaEventPublisher.VEHICLE_UPDATED, created.getId(), Duration.ofSeconds(10))).isPresent();
+    }
+
+    @Test
+    void publishesDeleteAfterCommit() {
+        VehicleDTO created = vehicleService.createVehicle(vehicle());
+
+        vehicleService.deleteVehicle(created.getId());
+
+        assertThat(awaitEvent(KafkaEventPublisher.VEHICLE_DELETED, created.getId(), Duration.ofSeconds(10))).isPresent();
+    }
+
+    @Test
+    void publishesView() {
+        VehicleDTO created = vehicleService.createVehicle(vehicle());
+
+        assertThat(vehicleService.getVehicleById(created.getId())).isPresent();
+
+        assertThat(awaitEvent(KafkaEventPublisher.VEHICLE_VIEWED, created.getId(), Duration.ofSeconds(10))).isPresent();
+    }
+
+    @Test
+    void rolledBackWriteIsNotPublished() {
+        AtomicLong vehicleId = new AtomicLong();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            vehicleId.set(vehicleService.createVehicle(vehicle()).getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(vehicleService.getVehicleById(vehicleId.get())).isEmpty();
+        assertThat(awaitEvent(KafkaEventPublisher.VEHICLE_CREATED, vehicleId.get(), Duration.ofSeconds(3))).isEmpty();
+    }
+
+    private Optional<Map<String, Object>> awaitEvent(String eventType, Long vehicleId, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                Map<String, Object> event = readEvent(record.value());
+                if (eventType.equals(event.get("eventType"))
+                        && vehicleId.equals(((Number) event.get("vehicleId")).longValue())) {
+                    assertThat(record.key()).isEqualTo(vehicleId.toString());
+                    return Optional.of(event);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Map<String, Object> readEvent(String json) {
+        try {
+            return objectMapper.readValue(json, EVENT);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable event: " + json, e);
+        }
+    }
+
+    private static VehicleDTO vehicle() {
+        VehicleDTO dto = new VehicleDTO();
+        dto.setName("Test Coupe");
+        dto.setMake("Porsche");
+        dto.setModel("911");
+        dto.setYear(1973);
+        dto.setType("car");
+        // An image keeps the vehicle out of the background image enrichment queue
+        dto.setPrimaryImageUrl("https://example.com/911.jpg");
+        return dto;
+    }
+}
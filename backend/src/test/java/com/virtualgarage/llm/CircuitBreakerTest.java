@@ -0,0 +1,101 @@
+package com.virtualgarage.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneProbeThroughAfterOpenDuration() throws InterruptedException {
+        CircuitBreaker breaker = open(Duration.ofMillis(50));
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        Thread.sleep(100);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successfulProbeClosesCircuit() {
+        CircuitBreaker breaker = open(Duration.ZERO);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        CircuitBreaker breaker = open(Duration.ZERO);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoredProbeFreesTheSlotWithoutChangingState() {
+        CircuitBreaker breaker = open(Duration.ZERO);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void rejectsNonPositiveThreshold() {
+        assertThatThrownBy(() -> new CircuitBreaker(0, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CircuitBreaker open(Duration openDuration) {
+        CircuitBreaker breaker = new CircuitBreaker(1, openDuration);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}
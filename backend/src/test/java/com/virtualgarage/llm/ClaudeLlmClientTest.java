@@ -0,0 +1,111 @@
+package com.virtualgarage.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaudeLlmClientTest {
+
+    private static final String MODEL = "claude-test";
+    private static final String RESPONSE = """
+            {
+              "content": [{"type": "text", "text": "Check the brake pads"}],
+              "usage": {
+                "input_tokens": 12,
+                "cache_read_input_tokens": 1500,
+                "cache_creation_input_tokens": 0,
+                "output_tokens": 40
+              }
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private LlmProperties properties;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/messages", exchange -> {
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        properties = new LlmProperties();
+        properties.getClaude().setApiKey("test-key");
+        properties.getClaude().setModel(MODEL);
+        properties.getClaude().setBaseUrl("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void marksSystemPromptAsCacheable() throws Exception {
+        ClaudeLlmClient client = new ClaudeLlmClient(properties, objectMapper, new LlmTokenMetrics(meterRegistry));
+
+        assertThat(client.chat("You are a parts expert", "Brakes squeal")).isEqualTo("Check the brake pads");
+
+        JsonNode system = objectMapper.readTree(requestBody.get()).path("system");
+        assertThat(system.isArray()).isTrue();
+        assertThat(system.get(0).path("text").asText()).isEqualTo("You are a parts expert");
+        assertThat(system.get(0).path("cache_control").path("type").asText()).isEqualTo("ephemeral");
+    }
+
+    @Test
+    void sendsPlainSystemPromptWhenCachingDisabled() throws Exception {
+        properties.getClaude().setPromptCaching(false);
+        ClaudeLlmClient client = new ClaudeLlmClient(properties, objectMapper, new LlmTokenMetrics(meterRegistry));
+
+        client.chat("You are a parts expert", "Brakes squeal");
+
+        JsonNode system = objectMapper.readTree(requestBody.get()).path("system");
+        assertThat(system.isTextual()).isTrue();
+        assertThat(system.asText()).isEqualTo("You are a parts expert");
+    }
+
+    @Test
+    void recordsTokenUsage() {
+        ClaudeLlmClient client = new ClaudeLlmClient(properties, objectMapper, new LlmTokenMetrics(meterRegistry));
+
+        client.chatAsync("You are a parts expert", "Brakes squeal").join();
+
+        assertThat(tokens("input").totalAmount()).isEqualTo(12);
+        assertThat(tokens("cache_read").totalAmount()).isEqualTo(1500);
+        assertThat(tokens("cache_write").totalAmount()).isEqualTo(0);
+        assertThat(tokens("output").totalAmount()).isEqualTo(40);
+        assertThat(tokens("output").count()).isEqualTo(1);
+    }
+
+    private DistributionSummary tokens(String type) {
+        return meterRegistry.get("llm.tokens")
+                .tag("provider", "claude")
+                .tag("model", MODEL)
+                .tag("type", type)
+                .summary();
+    }
+}
@@ -0,0 +1,211 @@
+package com.virtualgarage.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingLlmClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void usesPrimaryWhenItAnswers() {
+        StubLlmClient primary = StubLlmClient.answering("primary", "from primary");
+        StubLlmClient fallback = StubLlmClient.answering("fallback", "from fallback");
+
+        RoutingLlmClient client = routing(routingProperties(), primary, fallback);
+
+        assertThat(client.chat("system", "user")).isEqualTo("from primary");
+        assertThat(fallback.calls()).isZero();
+    }
+
+    @Test
+    void failsOverInRoutingOrder() {
+        StubLlmClient primary = StubLlmClient.failing("primary");
+        StubLlmClient secondary = StubLlmClient.failing("secondary");
+        StubLlmClient tertiary = StubLlmClient.answering("tertiary", "from tertiary");
+
+        RoutingLlmClient client = routing(routingProperties(), primary, secondary, tertiary);
+
+        assertThat(client.chat("system", "user")).isEqualTo("from tertiary");
+        assertThat(List.of(primary.calls(), secondary.calls(), tertiary.calls())).containsExactly(1, 1, 1);
+        assertThat(meterRegistry.get("llm.routing.failovers").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void skipsProviderWithOpenCircuit() {
+        LlmProperties.Routing routing = routingProperties();
+        routing.setFailureThreshold(2);
+        StubLlmClient primary = StubLlmClient.failing("primary");
+        StubLlmClient fallback = StubLlmClient.answering("fallback", "from fallback");
+
+        RoutingLlmClient client = routing(routing, primary, fallback);
+        client.chat("system", "user");
+        client.chat("system", "user");
+
+        assertThat(client.getCircuitStates()).containsEntry("primary", CircuitBreaker.State.OPEN)
+                .containsEntry("fallback", CircuitBreaker.State.CLOSED);
+        assertThat(client.chat("system", "user")).isEqualTo("from fallback");
+        assertThat(primary.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void failsWhenEveryProviderFails() {
+        RoutingLlmClient client = routing(routingProperties(),
+                StubLlmClient.failing("primary"), StubLlmClient.failing("fallback"));
+
+        assertThatThrownBy(() -> client.chat("system", "user"))
+                .isInstanceOf(LlmException.class)
+                .hasMessageContaining("fallback failed");
+    }
+
+    @Test
+    void hedgedCallWinsWhenPrimaryIsSlow() {
+        LlmProperties.Routing routing = routingProperties();
+        routing.getHedging().setEnabled(true);
+        routing.getHedging().setInitialDelayMs(50);
+        routing.getHedging().setMinSamples(1000);
+        StubLlmClient primary = new StubLlmClient("primary", () -> CompletableFuture.supplyAsync(() -> "from primary",
+                CompletableFuture.delayedExecutor(5, TimeUnit.SECONDS)));
+        StubLlmClient fallback = StubLlmClient.answering("fallback", "from fallback");
+
+        RoutingLlmClient client = routing(routing, primary, fallback);
+
+        assertThat(client.chatAsync("system", "user").orTimeout(2, TimeUnit.SECONDS).join()).isEqualTo("from fallback");
+        assertThat(meterRegistry.get("llm.routing.hedges").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("llm.routing.failovers").counter().count()).isZero();
+    }
+
+    @Test
+    void noHedgeWhenPrimaryAnswersInTime() throws InterruptedException {
+        LlmProperties.Routing routing = routingProperties();
+        routing.getHedging().setEnabled(true);
+        routing.getHedging().setInitialDelayMs(50);
+        routing.getHedging().setMinSamples(1000);
+        StubLlmClient primary = StubLlmClient.answering("primary", "from primary");
+        StubLlmClient fallback = StubLlmClient.answering("fallback", "from fallback");
+
+        RoutingLlmClient client = routing(routing, primary, fallback);
+
+        assertThat(client.chatAsync("system", "user").join()).isEqualTo("from primary");
+        Thread.sleep(150);
+        assertThat(fallback.calls()).isZero();
+        assertThat(meterRegistry.get("llm.routing.hedges").counter().count()).isZero();
+    }
+
+    @Test
+    void overloadedResponseDoesNotTripCircuit() {
+        LlmProperties.Routing routing = routingProperties();
+        routing.setFailureThreshold(1);
+        StubLlmClient primary = new StubLlmClient("primary", () -> CompletableFuture.failedFuture(
+                new LlmOverloadedException("primary", "Too many queued requests", 1)));
+        StubLlmClient fallback = StubLlmClient.answering("fallback", "from fallback");
+
+        RoutingLlmClient client = routing(routing, primary, fallback);
+
+        assertThat(client.chat("system", "user")).isEqualTo("from fallback");
+        assertThat(client.chat("system", "user")).isEqualTo("from fallback");
+        assertThat(client.getCircuitStates()).containsEntry("primary", CircuitBreaker.State.CLOSED);
+        assertThat(primary.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void reportsPrimaryProvider() {
+        RoutingLlmClient client = routing(routingProperties(),
+                StubLlmClient.answering("primary", "a"), StubLlmClient.answering("fallback", "b"));
+
+        assertThat(client.getProviderName()).isEqualTo("primary");
+        assertThat(client.getModelName()).isEqualTo("primary-model");
+    }
+
+    private RoutingLlmClient routing(LlmProperties.Routing routing, LlmClient... clients) {
+        return new RoutingLlmClient(List.of(clients), routing, meterRegistry);
+    }
+
+    private static LlmProperties.Routing routingProperties() {
+        LlmProperties.Routing routing = new LlmProperties.Routing();
+        routing.setFailureThreshold(5);
+        routing.setOpenSeconds(60);
+        return routing;
+    }
+
+    /**
+     * LLM client whose answers come from a supplier; counts the calls it receives.
+     */
+    private static final class StubLlmClient implements LlmClient {
+
+        private final String name;
+        private final Supplier<CompletableFuture<String>> answer;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubLlmClient(String name, Supplier<CompletableFuture<String>> answer) {
+            this.name = name;
+            this.answer = answer;
+        }
+
+        static StubLlmClient answering(String name, String text) {
+            return new StubLlmClient(name, () -> CompletableFuture.completedFuture(text));
+        }
+
+        static StubLlmClient failing(String name) {
+            return new StubLlmClient(name, () -> CompletableFuture.failedFuture(
+                    new LlmException(name, name + " failed", 500)));
+        }
+
+        int calls() {
+            return calls.get();
+        }
+
+        @Override
+        public String chat(String systemPrompt, String userMessage) {
+            return chatAsync(systemPrompt, userMessage).join();
+        }
+
+        @Override
+        public CompletableFuture<String> chatAsync(String systemPrompt, String userMessage) {
+            calls.incrementAndGet();
+            return answer.get();
+        }
+
+        @Override
+        public String chatStream(String systemPrompt, String userMessage, Consumer<String> onText) {
+            String text = chat(systemPrompt, userMessage);
+            onText.accept(text);
+            return text;
+        }
+
+        @Override
+        public String getProviderName() {
+            return name;
+        }
+
+        @Override
+        public String getModelName() {
+            return name + "-model";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public LlmHealth checkHealth() {
+            return getHealth();
+        }
+
+        @Override
+        public LlmHealth getHealth() {
+            return LlmHealth.up(1);
+        }
+    }
+}
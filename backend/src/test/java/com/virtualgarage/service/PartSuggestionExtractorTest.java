@@ -0,0 +1,118 @@
+package com.virtualgarage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtualgarage.dto.PartsSearchResponse.PartSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartSuggestionExtractorTest {
+
+    private final PartSuggestionExtractor extractor = new PartSuggestionExtractor(new ObjectMapper());
+
+    @Test
+    void readsPlainArray() {
+        PartSuggestionExtractor.Extraction extraction = extractor.extract("""
+                [{"name": "Brake pads", "partNumber": "BP-1"}, {"name": "Rotor"}]
+                """).orElseThrow();
+
+        assertThat(names(extraction.suggestions())).containsExactly("Brake pads", "Rotor");
+        assertThat(extraction.suggestions().get(0).getPartNumber()).isEqualTo("BP-1");
+        assertThat(extraction.complete()).isTrue();
+    }
+
+    @Test
+    void skipsReasoningBlock() {
+        PartSuggestionExtractor.Extraction extraction = extractor.extract("""
+                <think>Maybe [{"name": "Wrong part"}] fits, but the year rules it out.</think>
+                [{"name": "Brake pads"}]
+                """).orElseThrow();
+
+        assertThat(names(extraction.suggestions())).containsExactly("Brake pads");
+    }
+
+    @Test
+    void findsNothingWhileStillReasoning() {
+        assertThat(extractor.extract("<think>Looking at [{\"name\": \"Brake pads\"}]")).isEmpty();
+    }
+
+    @Test
+    void skipsProseAndFenceBeforeArray() {
+        PartSuggestionExtractor.Extraction extraction = extractor.extract("""
+                Here are the parts [as requested]:
+                ```json
+                [{"name": "Brake pads"}]
+                ```
+                """).orElseThrow();
+
+        assertThat(names(extraction.suggestions())).containsExactly("Brake pads");
+        assertThat(extraction.complete()).isTrue();
+    }
+
+    @Test
+    void keepsCompleteObjectsOfTruncatedArray() {
+        PartSuggestionExtractor.Extraction extraction = extractor.extract("""
+                [{"name": "Brake pads"}, {"name": "Rotor"}, {"name": "Cali""").orElseThrow();
+
+        assertThat(names(extraction.suggestions())).containsExactly("Brake pads", "Rotor");
+        assertThat(extraction.complete()).isFalse();
+    }
+
+    @Test
+    void skipsUnmappableObjects() {
+        PartSuggestionExtractor.Extraction extraction = extractor.extract("""
+                [{"name": {"text": "Brake pads"}}, "Rotor", {"name": "Caliper"}]
+                """).orElseThrow();
+
+        assertThat(names(extraction.suggestions())).containsExactly("Caliper");
+        assertThat(extraction.complete()).isTrue();
+    }
+
+    @Test
+    void findsNothingWhenEveryObjectIsUnmappable() {
+        assertThat(extractor.extract("[{\"name\": {\"text\": \"Brake pads\"}}]")).isEmpty();
+    }
+
+    @Test
+    void emptyArrayIsAnAnswerWithoutSuggestions() {
+        Optional<PartSuggestionExtractor.Extraction> extraction = extractor.extract("No compatible parts: []");
+
+        assertThat(extraction).isPresent();
+        assertThat(extraction.get().suggestions()).isEmpty();
+        assertThat(extraction.get().complete()).isTrue();
+    }
+
+    @Test
+    void prefersLaterArrayWithSuggestionsOverEmptyArray() {
+        PartSuggestionExtractor.Extraction extraction = extractor.extract("""
+                Not [] but:
+                [{"name": "Brake pads"}]
+                """).orElseThrow();
+
+        assertThat(names(extraction.suggestions())).containsExactly("Brake pads");
+    }
+
+    @Test
+    void findsNothingInProse() {
+        assertThat(extractor.extract("Brake pads should fit this vehicle.")).isEmpty();
+    }
+
+    @Test
+    void readsKeyedArraysUpToTruncation() {
+        Map<String, List<PartSuggestion>> arrays = extractor.extractKeyed("""
+                ```json
+                {"1": [{"name": "Brake pads"}], "2": [], "3": [{"name": "Rot""").orElseThrow();
+
+        assertThat(arrays).containsOnlyKeys("1", "2");
+        assertThat(names(arrays.get("1"))).containsExactly("Brake pads");
+        assertThat(arrays.get("2")).isEmpty();
+    }
+
+    private static List<String> names(List<PartSuggestion> suggestions) {
+        return suggestions.stream().map(PartSuggestion::getName).toList();
+    }
+}